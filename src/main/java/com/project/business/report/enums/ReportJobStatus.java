@@ -0,0 +1,12 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.business.report.enums;
+
+public enum ReportJobStatus {
+	QUEUED,
+	RUNNING,
+	DONE,
+	FAILED;
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.business.report.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.project.business.report.enums.ReportJobStatus;
+import com.project.frame.model.enums.ExportType;
+import java.io.File;
+import java.io.Serializable;
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * 報表背景工作狀態
+ */
+@Data
+public class ReportJob implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private String jobId;
+
+	private String jrxmlPath;
+
+	private String jrxmlName;
+
+	private ExportType exportType;
+
+	private String downloadName;
+
+	private volatile ReportJobStatus status;
+
+	private String message;
+
+	private Date createTime;
+
+	private Date startTime;
+
+	private Date endTime;
+
+	@JsonIgnore
+	private transient ReportRequest request;
+
+	@JsonIgnore
+	private transient File file;
+}
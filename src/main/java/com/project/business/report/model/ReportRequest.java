@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.business.report.model;
+
+import com.project.frame.model.enums.ExportType;
+import java.io.Serializable;
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * 報表產生請求
+ */
+@Data
+public class ReportRequest implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** jrxml文件路徑 */
+	private String jrxmlPath;
+
+	/** jrxml名稱 */
+	private String jrxmlName;
+
+	/** 畫面參數 */
+	private Map<String, Object> params;
+
+	/** 輸出類型，僅允許 PDF 及 EXCEL */
+	private ExportType exportType;
+
+	/** 下載檔名，未填時使用 jrxml名稱 */
+	private String downloadName;
+}
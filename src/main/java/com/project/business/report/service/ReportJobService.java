@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.business.report.service;
+
+import com.project.business.report.model.ReportJob;
+import com.project.business.report.model.ReportRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.owasp.esapi.errors.ValidationException;
+
+public interface ReportJobService {
+
+	/**
+	 * 送出報表產生工作，於背景執行緒產生
+	 *
+	 * @param request 報表請求
+	 * @return 工作狀態
+	 */
+	ReportJob submit(ReportRequest request);
+
+	/**
+	 * 查詢工作狀態
+	 *
+	 * @param jobId 工作代號
+	 * @return 工作狀態
+	 */
+	ReportJob getJob(String jobId);
+
+	/**
+	 * 下載已完成的報表
+	 *
+	 * @param jobId 工作代號
+	 * @param response
+	 * @throws IOException
+	 * @throws ValidationException
+	 */
+	void download(String jobId, HttpServletResponse response) throws IOException, ValidationException;
+}
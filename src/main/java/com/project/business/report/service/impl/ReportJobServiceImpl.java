@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.business.report.service.impl;
+
+import com.project.business.report.enums.ReportJobStatus;
+import com.project.business.report.model.ReportJob;
+import com.project.business.report.model.ReportRequest;
+import com.project.business.report.service.ReportJobService;
+import com.project.frame.model.enums.ExportType;
+import com.project.frame.util.CheckmarxUtil;
+import com.project.frame.util.JasperReportUtil;
+import com.project.frame.util.JasperTemplateCache;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.owasp.esapi.errors.ValidationException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * 報表背景產生
+ *
+ * <p>工作於 reportJobExecutor 執行，同一份報表 (jrxmlPath + jrxmlName) 同時最多執行 perReportConcurrency 個，
+ * 超過的工作留在該報表的等待佇列，不佔用執行緒。完成的檔案經 {@link CheckmarxUtil} 驗證路徑後保存，保留 retentionMinutes 分鐘。
+ *
+ * <p>樣板由呼叫端指定，只接受 classpath 下 jasper 目錄內的樣板；有設定 report.job.allowed-templates 時僅限清單內的樣板。
+ */
+@Slf4j
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+  private final ThreadPoolTaskExecutor reportJobExecutor;
+
+  private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+  private final Map<String, Semaphore> reportPermits = new ConcurrentHashMap<>();
+
+  private final Map<String, Queue<ReportJob>> pendingJobs = new ConcurrentHashMap<>();
+
+  @Value("${report.job.path:report/job}")
+  private String jobPath;
+
+  @Value("${report.job.per-report-concurrency:2}")
+  private int perReportConcurrency;
+
+  @Value("${report.job.retention-minutes:60}")
+  private long retentionMinutes;
+
+  /** 允許的樣板，格式為 jrxmlPath/jrxmlName，空白時允許 jasper 目錄內所有樣板 */
+  @Value("${report.job.allowed-templates:}")
+  private List<String> allowedTemplates;
+
+  public ReportJobServiceImpl(
+      @Qualifier("reportJobExecutor") ThreadPoolTaskExecutor reportJobExecutor) {
+    this.reportJobExecutor = reportJobExecutor;
+  }
+
+  @Override
+  public ReportJob submit(ReportRequest request) {
+    if (request.getExportType() != ExportType.PDF && request.getExportType() != ExportType.EXCEL) {
+      throw new IllegalArgumentException("Unsupported export type: " + request.getExportType());
+    }
+    if (StringUtils.isAnyBlank(request.getJrxmlPath(), request.getJrxmlName())) {
+      throw new IllegalArgumentException("Report template can not be empty.");
+    }
+    if (!isAllowedTemplate(request.getJrxmlPath(), request.getJrxmlName())) {
+      throw new IllegalArgumentException(
+          "Report template not allowed: "
+              + CheckmarxUtil.filterValidLog(request.getJrxmlPath() + "/" + request.getJrxmlName()));
+    }
+
+    ReportJob job = new ReportJob();
+    job.setJobId(UUID.randomUUID().toString());
+    job.setJrxmlPath(request.getJrxmlPath());
+    job.setJrxmlName(request.getJrxmlName());
+    job.setExportType(request.getExportType());
+    job.setDownloadName(
+        StringUtils.defaultIfBlank(request.getDownloadName(), request.getJrxmlName()));
+    job.setRequest(request);
+    job.setStatus(ReportJobStatus.QUEUED);
+    job.setCreateTime(new Date());
+    jobs.put(job.getJobId(), job);
+
+    String reportKey = getReportKey(job);
+    pendingJobs.computeIfAbsent(reportKey, key -> new ConcurrentLinkedQueue<>()).add(job);
+    dispatch(reportKey);
+    log.info("[ReportJob] Submit job {} for report {}", job.getJobId(), reportKey);
+    return job;
+  }
+
+  @Override
+  public ReportJob getJob(String jobId) {
+    ReportJob job = jobs.get(jobId);
+    if (job == null) {
+      throw new IllegalArgumentException(
+          "Report job not found: " + CheckmarxUtil.filterValidLog(jobId));
+    }
+    return job;
+  }
+
+  @Override
+  public void download(String jobId, HttpServletResponse response)
+      throws IOException, ValidationException {
+    ReportJob job = getJob(jobId);
+    if (job.getStatus() != ReportJobStatus.DONE || job.getFile() == null) {
+      throw new IllegalStateException("Report job is not finished: " + job.getStatus());
+    }
+    File file = job.getFile();
+    String suffix = job.getExportType() == ExportType.PDF ? ".pdf" : ".xls";
+    response.reset();
+    response.setContentType(
+        job.getExportType() == ExportType.PDF ? "application/pdf" : "application/vnd.ms-excel");
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment()
+            .filename(job.getDownloadName() + suffix, StandardCharsets.UTF_8)
+            .build()
+            .toString());
+    response.setContentLengthLong(file.length());
+    try (InputStream is =
+            CheckmarxUtil.newFileInputStreamSafely(file.getParent(), file.getName());
+        OutputStream os = response.getOutputStream()) {
+      IOUtils.copyLarge(is, os);
+    }
+  }
+
+  /** 依報表可用的執行數，將等待中的工作送入執行緒 */
+  private void dispatch(String reportKey) {
+    Semaphore permits =
+        reportPermits.computeIfAbsent(reportKey, key -> new Semaphore(perReportConcurrency));
+    Queue<ReportJob> queue = pendingJobs.get(reportKey);
+    while (!queue.isEmpty() && permits.tryAcquire()) {
+      ReportJob job = queue.poll();
+      if (job == null) {
+        permits.release();
+        continue;
+      }
+      try {
+        reportJobExecutor.execute(() -> run(job, permits, reportKey));
+      } catch (TaskRejectedException e) {
+        permits.release();
+        fail(job, "Report executor is busy, please try again later.");
+        log.warn("[ReportJob] Job {} rejected: {}", job.getJobId(), e.getMessage());
+      }
+    }
+  }
+
+  private void run(ReportJob job, Semaphore permits, String reportKey) {
+    job.setStatus(ReportJobStatus.RUNNING);
+    job.setStartTime(new Date());
+    try {
+      ReportRequest request = job.getRequest();
+      File file =
+          JasperReportUtil.generateReport(
+              jobPath,
+              job.getJobId(),
+              request.getJrxmlPath(),
+              request.getJrxmlName(),
+              request.getParams(),
+              request.getExportType());
+      job.setFile(file);
+      job.setEndTime(new Date());
+      job.setStatus(ReportJobStatus.DONE);
+      log.info(
+          "[ReportJob] Job {} done in {} ms",
+          job.getJobId(),
+          job.getEndTime().getTime() - job.getStartTime().getTime());
+    } catch (Exception e) {
+      fail(job, e.getMessage());
+      log.error("[ReportJob] Job {} failed: {}", job.getJobId(), CheckmarxUtil.safeErrorLog(e));
+    } finally {
+      job.setRequest(null);
+      permits.release();
+      dispatch(reportKey);
+    }
+  }
+
+  private void fail(ReportJob job, String message) {
+    job.setMessage(message);
+    job.setEndTime(new Date());
+    job.setStatus(ReportJobStatus.FAILED);
+    job.setRequest(null);
+  }
+
+  private boolean isAllowedTemplate(String jrxmlPath, String jrxmlName) {
+    if (!JasperTemplateCache.isTemplate(jrxmlPath, jrxmlName)) {
+      return false;
+    }
+    List<String> allowed =
+        allowedTemplates.stream().map(String::trim).filter(StringUtils::isNotEmpty).toList();
+    String template = StringUtils.strip(jrxmlPath.replace('\\', '/'), "/") + "/" + jrxmlName;
+    return allowed.isEmpty() || allowed.contains(template);
+  }
+
+  /** 定期移除超過保留時間的工作與檔案 */
+  @Scheduled(
+      fixedDelayString = "${report.job.cleanup-interval-millis:60000}",
+      initialDelayString = "${report.job.cleanup-interval-millis:60000}")
+  public void removeExpiredJobs() {
+    long expireBefore = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+    for (Iterator<ReportJob> i = jobs.values().iterator(); i.hasNext(); ) {
+      ReportJob job = i.next();
+      if (job.getEndTime() != null && job.getEndTime().getTime() < expireBefore) {
+        i.remove();
+        if (job.getFile() != null && !job.getFile().delete()) {
+          log.warn("[ReportJob] Delete expired file fail: {}", job.getFile().getName());
+        }
+      }
+    }
+  }
+
+  /** 正規化路徑，不同寫法的同一範本 (例如 a/./b、a//b、a\b 與 a/b) 共用併發上限 */
+  private String getReportKey(ReportJob job) {
+    String path = String.join("/", StringUtils.split(job.getJrxmlPath(), "/\\"));
+    return Paths.get(path, job.getJrxmlName()).normalize().toString();
+  }
+}
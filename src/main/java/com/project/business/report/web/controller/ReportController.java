@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.business.report.web.controller;
+
+import com.bi.base.web.BaseApi;
+import com.project.business.report.model.ReportJob;
+import com.project.business.report.model.ReportRequest;
+import com.project.business.report.service.ReportJobService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.owasp.esapi.errors.ValidationException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/report")
+public class ReportController extends BaseApi {
+
+  private final ReportJobService reportJobService;
+
+  public ReportController(ReportJobService reportJobService) {
+    this.reportJobService = reportJobService;
+  }
+
+  @PostMapping("/jobs")
+  public ReportJob submit(@RequestBody ReportRequest request) {
+    return reportJobService.submit(request);
+  }
+
+  @GetMapping("/jobs/{jobId}")
+  public ReportJob getJob(@PathVariable String jobId) {
+    return reportJobService.getJob(jobId);
+  }
+
+  @GetMapping("/jobs/{jobId}/file")
+  public void download(@PathVariable String jobId, HttpServletResponse response)
+      throws IOException, ValidationException {
+    reportJobService.download(jobId, response);
+  }
+}
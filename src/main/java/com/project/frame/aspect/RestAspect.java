@@ -5,7 +5,14 @@
 package com.project.frame.aspect;
 
 import com.project.frame.model.RestTracer;
+import com.project.integration.rest.trace.RestTraceContext;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -13,12 +20,21 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.CodeSignature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * API Trace Log設定
+ * <p>
+ * 依 project.trace.rest.sample-rate 以 web request 為單位抽樣，只記錄耗時、狀態、大小與 body 開頭 preview-bytes 的內容，
+ * 每個 request 最多保留 capacity 筆。request 帶有 debug-header 且值等於 debug-token 時才記錄完整的 request、response 物件。
  *
  * @author Parker Huang
  * @since 1.0.0
@@ -29,34 +45,124 @@ import org.springframework.web.context.request.RequestContextHolder;
 @Component
 public class RestAspect {
 
+	private static final String SAMPLED_ATTRIBUTE = RestAspect.class.getName() + ".SAMPLED";
+
+	private static final String FULL_ATTRIBUTE = RestAspect.class.getName() + ".FULL";
+
+	private static final int MAX_ERROR_LENGTH = 200;
+
 	@Autowired
 	private List<RestTracer> tracers;
 
+	@Value("${project.trace.rest.sample-rate:1.0}")
+	private double sampleRate;
+
+	@Value("${project.trace.rest.preview-bytes:256}")
+	private int previewBytes;
+
+	@Value("${project.trace.rest.debug-header:X-Trace-Debug}")
+	private String debugHeader;
+
+	@Value("${project.trace.rest.debug-token:}")
+	private String debugToken;
+
 	@Around("execution(* org.springframework.web.client.RestTemplate.*(..))")
 	public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
-		Object result = joinPoint.proceed();
-		addTracer(joinPoint.getArgs(), ((CodeSignature) joinPoint.getSignature()).getParameterNames(), result);
-		return result;
-	}
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		// 巢狀呼叫只記錄最外層
+		if (attributes == null || RestTraceContext.current() != null || !isSampled(attributes)) {
+			return joinPoint.proceed();
+		}
+		Object[] args = joinPoint.getArgs();
+		String[] argNames = ((CodeSignature) joinPoint.getSignature()).getParameterNames();
+		String url = findUrl(args, argNames);
+		if (StringUtils.isBlank(url)) {
+			return joinPoint.proceed();
+		}
 
-	private void addTracer(Object[] args, String[] argNames, Object result) {
 		RestTracer restTracer = new RestTracer();
+		restTracer.setUrl(url);
+		restTracer.setMethod(findMethod(args, joinPoint.getSignature().getName()));
+		RestTraceContext context = RestTraceContext.begin(previewBytes);
+		long start = System.nanoTime();
+		Object result = null;
+		try {
+			result = joinPoint.proceed();
+			return result;
+		} catch (Throwable e) {
+			if (e instanceof RestClientResponseException responseException) {
+				restTracer.setStatus(responseException.getStatusCode().value());
+			}
+			restTracer.setError(e.getClass().getSimpleName() + ": " + StringUtils.abbreviate(e.getMessage(), MAX_ERROR_LENGTH));
+			throw e;
+		} finally {
+			context.end();
+			restTracer.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			context.applyTo(restTracer);
+			if (restTracer.getStatus() == null && result instanceof ResponseEntity<?> entity) {
+				restTracer.setStatus(entity.getStatusCode().value());
+			}
+			if (Boolean.TRUE.equals(attributes.getAttribute(FULL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))) {
+				restTracer.setRequest(findRequest(args, argNames));
+				restTracer.setResponse(result);
+			}
+			tracers.add(restTracer);
+		}
+	}
 
+	/**
+	 * 同一個 web request 只判斷一次，結果存於 request attribute
+	 */
+	private boolean isSampled(RequestAttributes attributes) {
+		Object sampled = attributes.getAttribute(SAMPLED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (sampled != null) {
+			return (Boolean) sampled;
+		}
+		boolean full = isDebugRequest(attributes);
+		boolean decision = full || ThreadLocalRandom.current().nextDouble() < sampleRate;
+		attributes.setAttribute(FULL_ATTRIBUTE, full, RequestAttributes.SCOPE_REQUEST);
+		attributes.setAttribute(SAMPLED_ATTRIBUTE, decision, RequestAttributes.SCOPE_REQUEST);
+		return decision;
+	}
+
+	private boolean isDebugRequest(RequestAttributes attributes) {
+		if (StringUtils.isBlank(debugToken) || !(attributes instanceof ServletRequestAttributes servletAttributes)) {
+			return false;
+		}
+		String value = servletAttributes.getRequest().getHeader(debugHeader);
+		return value != null && MessageDigest.isEqual(value.getBytes(StandardCharsets.UTF_8), debugToken.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String findUrl(Object[] args, String[] argNames) {
 		for (int i = 0; i < args.length; i++) {
-			if ("url".equals(argNames[i])) {
-				restTracer.setUrl((String) args[i]);
-			} else if ("request".equals(argNames[i])) {
-				restTracer.setRequest(args[i]);
-			} else if ("requestEntity".equals(argNames[i])) {
-				restTracer.setRequest(args[i]);
+			if ("url".equals(argNames[i]) && (args[i] instanceof String || args[i] instanceof URI)) {
+				return args[i].toString();
 			}
 		}
+		return null;
+	}
 
-		restTracer.setResponse(result);
+	private String findMethod(Object[] args, String methodName) {
+		for (Object arg : args) {
+			if (arg instanceof HttpMethod httpMethod) {
+				return httpMethod.name();
+			}
+		}
+		// getForObject、postForEntity 等以名稱開頭判斷
+		for (HttpMethod httpMethod : HttpMethod.values()) {
+			if (methodName.startsWith(httpMethod.name().toLowerCase(Locale.ROOT))) {
+				return httpMethod.name();
+			}
+		}
+		return null;
+	}
 
-		if (StringUtils.isNotBlank(restTracer.getUrl())
-				&& RequestContextHolder.getRequestAttributes() != null) {
-			tracers.add(restTracer);
+	private Object findRequest(Object[] args, String[] argNames) {
+		for (int i = 0; i < args.length; i++) {
+			if ("request".equals(argNames[i]) || "requestEntity".equals(argNames[i])) {
+				return args[i];
+			}
 		}
+		return null;
 	}
 }
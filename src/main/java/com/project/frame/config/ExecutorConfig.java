@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
@@ -19,6 +20,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
  */
 @Configuration
 @EnableAsync
+@EnableScheduling
 @Slf4j
 public class ExecutorConfig {
 
@@ -34,6 +36,69 @@ public class ExecutorConfig {
 	@Value("${async.executor.thread.name.prefix}")
 	private String namePrefix;
 
+	@Value("${report.executor.thread.core_pool_size:2}")
+	private int reportCorePoolSize;
+
+	@Value("${report.executor.thread.max_pool_size:4}")
+	private int reportMaxPoolSize;
+
+	@Value("${report.executor.thread.queue_capacity:100}")
+	private int reportQueueCapacity;
+
+	@Value("${smb.executor.thread.core_pool_size:4}")
+	private int smbCorePoolSize;
+
+	@Value("${smb.executor.thread.max_pool_size:8}")
+	private int smbMaxPoolSize;
+
+	@Value("${smb.executor.thread.queue_capacity:1000}")
+	private int smbQueueCapacity;
+
+	@Value("${smb.watch.executor.thread.core_pool_size:2}")
+	private int smbWatchCorePoolSize;
+
+	@Value("${smb.watch.executor.thread.max_pool_size:4}")
+	private int smbWatchMaxPoolSize;
+
+	@Value("${smb.watch.executor.thread.queue_capacity:100}")
+	private int smbWatchQueueCapacity;
+
+	@Value("${ftp.executor.thread.core_pool_size:4}")
+	private int ftpCorePoolSize;
+
+	@Value("${ftp.executor.thread.max_pool_size:8}")
+	private int ftpMaxPoolSize;
+
+	@Value("${ftp.executor.thread.queue_capacity:100}")
+	private int ftpQueueCapacity;
+
+	@Value("${sftp.executor.thread.core_pool_size:4}")
+	private int sftpCorePoolSize;
+
+	@Value("${sftp.executor.thread.max_pool_size:8}")
+	private int sftpMaxPoolSize;
+
+	@Value("${sftp.executor.thread.queue_capacity:100}")
+	private int sftpQueueCapacity;
+
+	@Value("${rest.async.executor.thread.core_pool_size:4}")
+	private int restAsyncCorePoolSize;
+
+	@Value("${rest.async.executor.thread.max_pool_size:16}")
+	private int restAsyncMaxPoolSize;
+
+	@Value("${rest.async.executor.thread.queue_capacity:1000}")
+	private int restAsyncQueueCapacity;
+
+	@Value("${rest.executor.thread.core_pool_size:4}")
+	private int restCorePoolSize;
+
+	@Value("${rest.executor.thread.max_pool_size:32}")
+	private int restMaxPoolSize;
+
+	@Value("${rest.executor.thread.queue_capacity:0}")
+	private int restQueueCapacity;
+
 	@Bean(name = "asyncServiceExecutor")
 	public Executor asyncServiceExecutor() {
 		log.info("Start asyncServiceExecutor");
@@ -47,4 +112,123 @@ public class ExecutorConfig {
 		executor.initialize();
 		return executor;
 	}
+
+	/**
+	 * 報表背景產生專用執行緒，佇列滿時拒絕新工作，不佔用 Tomcat 執行緒
+	 */
+	@Bean(name = "reportJobExecutor")
+	public ThreadPoolTaskExecutor reportJobExecutor() {
+		log.info("Start reportJobExecutor");
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(reportCorePoolSize);
+		executor.setMaxPoolSize(reportMaxPoolSize);
+		executor.setQueueCapacity(reportQueueCapacity);
+		executor.setThreadNamePrefix("report-job-");
+
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * SMB 平行列目錄與刪除專用執行緒，佇列滿時由呼叫端執行以限制同時請求數
+	 */
+	@Bean(name = "smbExecutor")
+	public ThreadPoolTaskExecutor smbExecutor() {
+		log.info("Start smbExecutor");
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(smbCorePoolSize);
+		executor.setMaxPoolSize(smbMaxPoolSize);
+		executor.setQueueCapacity(smbQueueCapacity);
+		executor.setThreadNamePrefix("smb-");
+
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * SMB 目錄監看事件 handler 專用執行緒，佇列滿時拒絕，由 SmbDirectoryWatcher 重新列為待處理，不佔用監看排程執行緒
+	 */
+	@Bean(name = "smbWatchExecutor")
+	public ThreadPoolTaskExecutor smbWatchExecutor() {
+		log.info("Start smbWatchExecutor");
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(smbWatchCorePoolSize);
+		executor.setMaxPoolSize(smbWatchMaxPoolSize);
+		executor.setQueueCapacity(smbWatchQueueCapacity);
+		executor.setThreadNamePrefix("smb-watch-handler-");
+
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * FTP 目錄樹平行處理專用執行緒，所有呼叫共用以限制總執行緒數；佇列滿時由等待結果的呼叫端執行
+	 */
+	@Bean(name = "ftpExecutor")
+	public ThreadPoolTaskExecutor ftpExecutor() {
+		log.info("Start ftpExecutor");
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(ftpCorePoolSize);
+		executor.setMaxPoolSize(ftpMaxPoolSize);
+		executor.setQueueCapacity(ftpQueueCapacity);
+		executor.setThreadNamePrefix("ftp-walker-");
+
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * SFTP 目錄同步專用執行緒，所有呼叫共用以限制總執行緒數；佇列滿時由等待結果的呼叫端執行
+	 */
+	@Bean(name = "sftpExecutor")
+	public ThreadPoolTaskExecutor sftpExecutor() {
+		log.info("Start sftpExecutor");
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(sftpCorePoolSize);
+		executor.setMaxPoolSize(sftpMaxPoolSize);
+		executor.setQueueCapacity(sftpQueueCapacity);
+		executor.setThreadNamePrefix("sftp-sync-");
+
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * REST hedge 呼叫專用執行緒，無空閒執行緒時拒絕，由 RestResilience 略過 hedge，不佔用呼叫端執行緒
+	 */
+	@Bean(name = "restHedgeExecutor")
+	public ThreadPoolTaskExecutor restHedgeExecutor() {
+		log.info("Start restHedgeExecutor");
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(restCorePoolSize);
+		executor.setMaxPoolSize(restMaxPoolSize);
+		executor.setQueueCapacity(restQueueCapacity);
+		executor.setThreadNamePrefix("rest-hedge-");
+
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * async REST 回應反序列化與完成 future 專用執行緒，佇列滿時拒絕，不佔用 HttpClient I/O 執行緒
+	 */
+	@Bean(name = "restAsyncExecutor")
+	public ThreadPoolTaskExecutor restAsyncExecutor() {
+		log.info("Start restAsyncExecutor");
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(restAsyncCorePoolSize);
+		executor.setMaxPoolSize(restAsyncMaxPoolSize);
+		executor.setQueueCapacity(restAsyncQueueCapacity);
+		executor.setThreadNamePrefix("rest-async-");
+
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.initialize();
+		return executor;
+	}
 }
@@ -7,7 +7,11 @@ package com.project.frame.config;
 import com.project.integration.smb.SmbProperties;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 import jcifs.CIFSContext;
+import jcifs.CIFSException;
+import jcifs.config.PropertyConfiguration;
+import jcifs.context.BaseContext;
 import jcifs.context.SingletonContext;
 import jcifs.smb.NtlmPasswordAuthenticator;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +36,7 @@ public class SmbConfig {
 
   @Bean
   public Map<String, CIFSContext> cifsContextMap() {
+    CIFSContext baseContext = createBaseContext();
     Map<String, CIFSContext> contextMap = new HashMap<>();
     for (Map.Entry<String, SmbProperties.ServerConfig> entry :
         smbProperties.getServers().entrySet()) {
@@ -41,7 +46,6 @@ public class SmbConfig {
         NtlmPasswordAuthenticator auth =
             new NtlmPasswordAuthenticator(
                 config.getUrl(), config.getUsername(), config.getPassword());
-        CIFSContext baseContext = SingletonContext.getInstance();
         contextMap.put(serverName, baseContext.withCredentials(auth));
         LOG.info("Created CIFSContext for server: {}", serverName);
       } catch (Exception e) {
@@ -50,4 +54,23 @@ public class SmbConfig {
     }
     return contextMap;
   }
+
+  /** 所有伺服器共用同一個 transport pool，同一台伺服器的操作共用 SMB2 session */
+  private CIFSContext createBaseContext() {
+    SmbProperties.Client client = smbProperties.getClient();
+    Properties props = new Properties();
+    props.putAll(System.getProperties());
+    props.setProperty("jcifs.smb.client.minVersion", client.getMinVersion());
+    props.setProperty("jcifs.smb.client.maxVersion", client.getMaxVersion());
+    props.setProperty("jcifs.smb.client.soTimeout", String.valueOf(client.getSoTimeoutMillis()));
+    props.setProperty("jcifs.smb.client.connTimeout", String.valueOf(client.getConnTimeoutMillis()));
+    props.setProperty(
+        "jcifs.smb.client.responseTimeout", String.valueOf(client.getResponseTimeoutMillis()));
+    try {
+      return new BaseContext(new PropertyConfiguration(props));
+    } catch (CIFSException e) {
+      LOG.error("Error creating CIFS configuration, use default: {}", e.getMessage());
+      return SingletonContext.getInstance();
+    }
+  }
 }
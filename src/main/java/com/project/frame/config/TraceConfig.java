@@ -6,8 +6,10 @@ package com.project.frame.config;
 
 import com.project.frame.model.RestTracer;
 import com.project.frame.model.SqlTracer;
+import com.project.frame.util.RingBufferList;
 import java.util.ArrayList;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.context.annotation.RequestScope;
@@ -21,15 +23,21 @@ import org.springframework.web.context.annotation.RequestScope;
 @Configuration
 public class TraceConfig {
 
+	@Value("${project.trace.rest.capacity:20}")
+	private int restTraceCapacity;
+
 	@RequestScope
 	@Bean
 	public List<SqlTracer> sqlTracers() {
 		return new ArrayList<>();
 	}
 
+	/**
+	 * 每個 request 只保留最後 project.trace.rest.capacity 筆
+	 */
 	@RequestScope
 	@Bean
 	public List<RestTracer> restTracers() {
-		return new ArrayList<>();
+		return new RingBufferList<>(restTraceCapacity);
 	}
 }
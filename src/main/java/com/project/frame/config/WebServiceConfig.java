@@ -4,22 +4,45 @@
  */
 package com.project.frame.config;
 
+import com.project.integration.rest.cache.RestCacheInterceptor;
+import com.project.integration.rest.cache.RestCacheRequestFactory;
+import com.project.integration.rest.config.RestCacheProperties;
+import com.project.integration.rest.config.RestClientProperties;
+import com.project.integration.rest.config.RestResilienceProperties;
+import com.project.integration.rest.trace.RestTraceRequestFactory;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.security.KeyManagementException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
 import java.util.List;
+import javax.net.ssl.SSLContext;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.LaxRedirectStrategy;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
 import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.HostnameVerificationPolicy;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.URIScheme;
 import org.apache.hc.core5.http.config.Registry;
 import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.http.protocol.HttpContext;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
 import org.apache.hc.core5.ssl.TrustStrategy;
 import org.apache.hc.core5.util.Timeout;
@@ -28,6 +51,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.client.BufferingClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
@@ -43,12 +67,29 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class WebServiceConfig {
 
+	private static final String[] TLS_VERSIONS = {"TLSv1.2", "TLSv1.3"};
+
 	@Value("${rest.connectTimeout:10000}")
 	private int connectTimeout;
 
+	@Value("${project.trace.rest.enabled:false}")
+	private boolean traceEnabled;
+
 	@Autowired(required = false)
 	private List<HttpMessageConverter<?>> converters;
 
+	@Autowired
+	private RestClientProperties restClientProperties;
+
+	@Autowired
+	private RestResilienceProperties restResilienceProperties;
+
+	@Autowired
+	private RestCacheProperties restCacheProperties;
+
+	@Autowired
+	private RestCacheInterceptor restCacheInterceptor;
+
 	@Primary
 	@Bean
 	public RestTemplate restTemplate(ClientHttpRequestFactory clientHttpRequestFactory) {
@@ -57,20 +98,39 @@ public class WebServiceConfig {
 		return restTemplate;
 	}
 
+	/**
+	 * request/response body 直接串流，只有 rest.pool.buffered-routes 的路由暫存於記憶體；GET 經過 rest.cache 快取；
+	 * 開啟 project.trace.rest 時記錄 body 大小與開頭內容
+	 */
 	@Bean
 	public ClientHttpRequestFactory clientHttpRequestFactory() throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
-		return new BufferingClientHttpRequestFactory(new HttpComponentsClientHttpRequestFactory(closeableHttpClient()));
+		HttpComponentsClientHttpRequestFactory httpComponentsRequestFactory = new HttpComponentsClientHttpRequestFactory(closeableHttpClient());
+		httpComponentsRequestFactory.setHttpContextFactory(this::createHttpContext);
+		ClientHttpRequestFactory requestFactory = httpComponentsRequestFactory;
+		List<String> bufferedRoutes = restClientProperties.getBufferedRoutes();
+		if (!bufferedRoutes.isEmpty()) {
+			requestFactory = new BufferingClientHttpRequestFactory(requestFactory) {
+
+				@Override
+				protected boolean shouldBuffer(URI uri, HttpMethod httpMethod) {
+					String url = uri.toString();
+					return bufferedRoutes.stream().anyMatch(url::startsWith);
+				}
+			};
+		}
+		if (restCacheProperties.isEnabled()) {
+			requestFactory = new RestCacheRequestFactory(requestFactory, restCacheInterceptor);
+		}
+		if (traceEnabled) {
+			requestFactory = new RestTraceRequestFactory(requestFactory);
+		}
+		return requestFactory;
 	}
 
 	@Bean
 	public CloseableHttpClient closeableHttpClient() throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
-		// Accept all certificates
-		TrustStrategy acceptingTrustStrategy = (X509Certificate[] chain, String authType) -> true;
-		KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
-		var sslContext = SSLContextBuilder.create().loadTrustMaterial(trustStore, acceptingTrustStrategy).build();
-
 		// SSL Socket Factory
-		var sslSocketFactory = new SSLConnectionSocketFactory(sslContext, new String[]{"TLSv1.2", "TLSv1.3"}, null, (hostname, session) -> true);
+		var sslSocketFactory = new SSLConnectionSocketFactory(trustAllSslContext(), TLS_VERSIONS, null, (hostname, session) -> true);
 
 		// Connection Manager
 		Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory> create()
@@ -78,19 +138,106 @@ public class WebServiceConfig {
 				.register("https", sslSocketFactory)
 				.build();
 		var connectionManager = new PoolingHttpClientConnectionManager(registry);
-		connectionManager.setMaxTotal(50);
-		connectionManager.setDefaultMaxPerRoute(10);
+		connectionManager.setMaxTotal(restClientProperties.getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(restClientProperties.getDefaultMaxPerRoute());
+		restClientProperties.getMaxPerRoute().forEach((uri, max) -> connectionManager.setMaxPerRoute(toRoute(uri), max));
+		connectionManager.setConnectionConfigResolver(this::connectionConfig);
+
+		// Build and return HttpClient
+		HttpClientBuilder builder = HttpClients.custom()
+				.setRedirectStrategy(new LaxRedirectStrategy())
+				.setConnectionManager(connectionManager);
+		if (restResilienceProperties.isEnabled()) {
+			// 由 RestResilience 依 method 決定是否重試，避免 POST 遇到 503 時被自動重送
+			builder.disableAutomaticRetries();
+		}
+		return builder.build();
+	}
 
-		// Request Config
-		var requestConfig = RequestConfig.custom()
-				.setConnectTimeout(Timeout.ofSeconds(10))
+	/**
+	 * 非同步 REST client，連線池設定與 closeableHttpClient 相同
+	 */
+	@Bean(destroyMethod = "close")
+	public CloseableHttpAsyncClient closeableHttpAsyncClient() throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
+		ClientTlsStrategyBuilder tlsStrategyBuilder = ClientTlsStrategyBuilder.create()
+				.setSslContext(trustAllSslContext())
+				.setTlsVersions(TLS_VERSIONS)
+				.setHostnameVerifier(NoopHostnameVerifier.INSTANCE);
+		tlsStrategyBuilder.setHostnameVerificationPolicy(HostnameVerificationPolicy.CLIENT);
+
+		PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+				.setTlsStrategy(tlsStrategyBuilder.build())
+				.setMaxConnTotal(restClientProperties.getMaxTotal())
+				.setMaxConnPerRoute(restClientProperties.getDefaultMaxPerRoute())
+				.setDefaultConnectionConfig(ConnectionConfig.custom()
+						.setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+						.build())
 				.build();
+		restClientProperties.getMaxPerRoute().forEach((uri, max) -> connectionManager.setMaxPerRoute(toRoute(uri), max));
 
-		// Build and return HttpClient
-		return HttpClients.custom()
+		CloseableHttpAsyncClient client = HttpAsyncClients.custom()
 				.setRedirectStrategy(new LaxRedirectStrategy())
 				.setConnectionManager(connectionManager)
-				.setDefaultRequestConfig(requestConfig)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setResponseTimeout(Timeout.ofMilliseconds(restClientProperties.getResponseTimeoutMillis()))
+						.build())
+				.build();
+		client.start();
+		return client;
+	}
+
+	/**
+	 * rest.resilience 設定回應逾時的路由使用個別的 RequestConfig，其餘回傳 null 使用 client 預設值
+	 */
+	private HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+		String url = uri.toString();
+		RestResilienceProperties.Policy policy = restResilienceProperties.resolve(restResilienceProperties.matchRoute(url));
+		if (policy.getResponseTimeoutMillis() == null) {
+			return null;
+		}
+		HttpClientContext context = HttpClientContext.create();
+		context.setRequestConfig(RequestConfig.custom()
+				.setResponseTimeout(Timeout.ofMilliseconds(policy.getResponseTimeoutMillis()))
+				.build());
+		return context;
+	}
+
+	/**
+	 * 連線逾時以連線池的 route 為單位，採用 rest.resilience 中前綴為 scheme://host[:port] 的路由設定，未設定時使用 rest.connectTimeout
+	 */
+	private ConnectionConfig connectionConfig(HttpRoute route) {
+		HttpHost target = route.getTargetHost();
+		String prefix = restResilienceProperties.matchRoute(target.toURI() + "/");
+		boolean secure = URIScheme.HTTPS.same(target.getSchemeName());
+		if (prefix == null && target.getPort() == (secure ? 443 : 80)) {
+			prefix = restResilienceProperties.matchRoute(target.getSchemeName() + "://" + target.getHostName() + "/");
+		}
+		Long connectMillis = restResilienceProperties.resolve(prefix).getConnectTimeoutMillis();
+		return ConnectionConfig.custom()
+				.setConnectTimeout(Timeout.ofMilliseconds(connectMillis != null ? connectMillis : connectTimeout))
 				.build();
 	}
+
+	/**
+	 * Accept all certificates
+	 */
+	private SSLContext trustAllSslContext() throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
+		TrustStrategy acceptingTrustStrategy = (X509Certificate[] chain, String authType) -> true;
+		KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+		return SSLContextBuilder.create().loadTrustMaterial(trustStore, acceptingTrustStrategy).build();
+	}
+
+	/**
+	 * 將 scheme://host[:port] 轉為連線池的 route，未指定 port 時使用 scheme 預設值
+	 */
+	private static HttpRoute toRoute(String uri) {
+		try {
+			HttpHost host = HttpHost.create(uri);
+			boolean secure = URIScheme.HTTPS.same(host.getSchemeName());
+			int port = host.getPort() > 0 ? host.getPort() : (secure ? 443 : 80);
+			return new HttpRoute(new HttpHost(host.getSchemeName(), host.getHostName(), port), null, secure);
+		} catch (URISyntaxException e) {
+			throw new IllegalArgumentException("Invalid rest.pool.max-per-route key: " + uri, e);
+		}
+	}
 }
@@ -14,6 +14,7 @@ import com.project.frame.model.RestTracer;
 import com.project.frame.model.SqlTracer;
 import com.project.frame.model.enums.SourceType;
 import com.project.frame.web.model.ApiResultEntity;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -75,7 +76,7 @@ public class ApiResultHandler implements ResponseBodyAdvice<Object> {
 					((ApiResultEntity) object).setSqlTracer(sqlTracers);
 				}
 				if (restTracers.size() > 0) {
-					((ApiResultEntity) object).setRestTracer(restTracers);
+					((ApiResultEntity) object).setRestTracer(new ArrayList<>(restTracers));
 				}
 			}
 		} catch (Exception e) {
@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.frame.handler;
+
+import com.bi.base.database.annotation.BaseGeneratorValue;
+import com.bi.base.database.model.ColumnEntity;
+import com.bi.base.database.util.EntityUtil;
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkRecord;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.RuntimeProperty;
+import com.mysql.cj.jdbc.JdbcConnection;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+/**
+ * CSV 匯入資料庫處理
+ * <p>
+ * 串接 {@link CsvUploadHandler#readWithCsvStreamReader} 的批次結果，以 JDBC batch 寫入 entity 對應的資料表，
+ * 每 commitInterval 筆 commit 一次。MySQL 會開啟 rewriteBatchedStatements，SQL Server 會改用 bulk copy。
+ * 連線由 {@link DataSourceUtils} 取得，已有 Spring 交易時加入該交易，commit 與 rollback 交由交易處理。
+ *
+ * @param <E> table entity ({@link com.bi.base.database.annotation.BaseTable})
+ */
+@Slf4j
+public class CsvBulkInsertHandler<E> {
+
+	public static final int DEFAULT_COMMIT_INTERVAL = 10000;
+
+	private final DataSource dataSource;
+
+	private final Class<E> entityClazz;
+
+	private final String tableName;
+
+	private final List<ColumnEntity> columns;
+
+	private final MethodHandle[] getters;
+
+	private final int[] sqlTypes;
+
+	private final String insertSql;
+
+	private final boolean hasGenerator;
+
+	private int batchSize = CsvUploadHandler.DEFAULT_BATCH_SIZE;
+
+	private int commitInterval = DEFAULT_COMMIT_INTERVAL;
+
+	private boolean useBulkCopy = true;
+
+	public CsvBulkInsertHandler(DataSource dataSource, Class<E> entityClazz) throws ReflectiveOperationException {
+		this.dataSource = dataSource;
+		this.entityClazz = entityClazz;
+		this.tableName = EntityUtil.getTableName(entityClazz);
+		// 排除 auto increment 欄位，與 BaseDao.insert 一致
+		this.columns = EntityUtil.getColumnsEntity(entityClazz).stream().filter(column -> !column.isAutoIncrement()).collect(Collectors.toList());
+		this.getters = new MethodHandle[columns.size()];
+		this.sqlTypes = new int[columns.size()];
+
+		MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(entityClazz, MethodHandles.lookup());
+		for (int i = 0; i < columns.size(); i++) {
+			Field field = FieldUtils.getField(entityClazz, columns.get(i).getFieldName(), true);
+			getters[i] = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+			sqlTypes[i] = StatementCreatorUtils.javaTypeToSqlParameterType(field.getType());
+		}
+		this.hasGenerator = !FieldUtils.getFieldsListWithAnnotation(entityClazz, BaseGeneratorValue.class).isEmpty();
+		this.insertSql = "INSERT INTO " + tableName
+				+ " (" + columns.stream().map(ColumnEntity::getColumnName).collect(Collectors.joining(", ")) + ")"
+				+ " VALUES (" + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public void setCommitInterval(int commitInterval) {
+		this.commitInterval = commitInterval;
+	}
+
+	public void setUseBulkCopy(boolean useBulkCopy) {
+		this.useBulkCopy = useBulkCopy;
+	}
+
+	/**
+	 * 讀取 CSV 並批次寫入資料表
+	 *
+	 * @param fio CSV 檔案
+	 * @param customHeader 每一欄對應的 entity 欄位名稱
+	 * @param encoding 檔案編碼
+	 * @return 匯入結果
+	 * @throws Exception
+	 */
+	public BulkInsertResult importCsv(InputStream fio, List<String> customHeader, String encoding) throws Exception {
+		CsvUploadHandler<E> uploadHandler = new CsvUploadHandler<>(entityClazz);
+		try (BulkWriter writer = new BulkWriter()) {
+			uploadHandler.readWithCsvStreamReader(fio, customHeader, encoding, batchSize, writer::write);
+			return writer.finish();
+		}
+	}
+
+	/**
+	 * 批次寫入資料表
+	 *
+	 * @param entities 資料
+	 * @return 匯入結果
+	 * @throws SQLException
+	 */
+	public BulkInsertResult insert(List<E> entities) throws SQLException {
+		try (BulkWriter writer = new BulkWriter()) {
+			for (int i = 0; i < entities.size(); i += batchSize) {
+				writer.write(entities.subList(i, Math.min(entities.size(), i + batchSize)));
+			}
+			return writer.finish();
+		}
+	}
+
+	private Object[] toRowData(E entity) {
+		if (hasGenerator) {
+			EntityUtil.setGeneratorFieldValue(entity);
+		}
+		Object[] values = new Object[getters.length];
+		for (int i = 0; i < getters.length; i++) {
+			try {
+				values[i] = getters[i].invokeExact((Object) entity);
+			} catch (Throwable e) {
+				throw new IllegalStateException("Entity access error: " + columns.get(i).getFieldName(), e);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * 單次匯入使用的連線，commit 與統計皆在此處理
+	 */
+	private class BulkWriter implements AutoCloseable {
+
+		private final Connection connection;
+
+		/** 是否為 Spring 交易中的連線，是則不自行 commit */
+		private final boolean transactional;
+
+		private final boolean originalAutoCommit;
+
+		private final boolean sqlServerBulkCopy;
+
+		private RuntimeProperty<Boolean> rewriteBatchedStatements;
+
+		private PreparedStatement statement;
+
+		private final long startTime = System.nanoTime();
+
+		private long rows;
+
+		private long batches;
+
+		private long uncommitted;
+
+		private boolean finished;
+
+		BulkWriter() throws SQLException {
+			this.connection = DataSourceUtils.getConnection(dataSource);
+			this.transactional = DataSourceUtils.isConnectionTransactional(connection, dataSource);
+			this.originalAutoCommit = connection.getAutoCommit();
+			if (!transactional) {
+				connection.setAutoCommit(false);
+			}
+			this.sqlServerBulkCopy = useBulkCopy && connection.isWrapperFor(SQLServerConnection.class);
+			if (connection.isWrapperFor(JdbcConnection.class)) {
+				// MySQL 將 batch 合併為 multi-value INSERT
+				rewriteBatchedStatements = connection.unwrap(JdbcConnection.class).getPropertySet().getBooleanProperty(PropertyKey.rewriteBatchedStatements);
+				rewriteBatchedStatements.setValue(true);
+			}
+			if (!sqlServerBulkCopy) {
+				this.statement = connection.prepareStatement(insertSql);
+			}
+		}
+
+		void write(List<E> entities) {
+			if (entities.isEmpty()) {
+				return;
+			}
+			try {
+				if (sqlServerBulkCopy) {
+					writeBulkCopy(entities);
+				} else {
+					writeBatch(entities);
+				}
+				rows += entities.size();
+				uncommitted += entities.size();
+				batches++;
+				if (!transactional && uncommitted >= commitInterval) {
+					connection.commit();
+					uncommitted = 0;
+					log.debug("[CsvBulkInsert] {} committed {} rows", tableName, rows);
+				}
+			} catch (SQLException e) {
+				throw new RuntimeException("Bulk insert fail: " + tableName, e);
+			}
+		}
+
+		private void writeBatch(List<E> entities) throws SQLException {
+			for (E entity : entities) {
+				Object[] values = toRowData(entity);
+				for (int i = 0; i < values.length; i++) {
+					StatementCreatorUtils.setParameterValue(statement, i + 1, sqlTypes[i], values[i]);
+				}
+				statement.addBatch();
+			}
+			statement.executeBatch();
+			statement.clearBatch();
+		}
+
+		private void writeBulkCopy(List<E> entities) throws SQLException {
+			List<Object[]> rowData = new ArrayList<>(entities.size());
+			for (E entity : entities) {
+				rowData.add(toRowData(entity));
+			}
+			SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+			options.setBatchSize(entities.size());
+			options.setKeepNulls(true);
+			try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(connection.unwrap(SQLServerConnection.class))) {
+				bulkCopy.setDestinationTableName(tableName);
+				bulkCopy.setBulkCopyOptions(options);
+				for (int i = 0; i < columns.size(); i++) {
+					bulkCopy.addColumnMapping(i + 1, columns.get(i).getColumnName());
+				}
+				bulkCopy.writeToServer(new BatchBulkRecord(columns, sqlTypes, rowData));
+			}
+		}
+
+		BulkInsertResult finish() throws SQLException {
+			if (!transactional) {
+				connection.commit();
+			}
+			finished = true;
+			BulkInsertResult result = new BulkInsertResult(rows, batches, System.nanoTime() - startTime);
+			log.info("[CsvBulkInsert] {} inserted {} rows in {} ms ({} rows/sec)", tableName, result.getRows(), result.getElapsedMillis(), result.getRowsPerSecond());
+			return result;
+		}
+
+		@Override
+		public void close() throws SQLException {
+			try {
+				if (!finished && !transactional) {
+					connection.rollback();
+				}
+				if (statement != null) {
+					statement.close();
+				}
+				if (rewriteBatchedStatements != null) {
+					// 連線會回到 pool，還原設定
+					rewriteBatchedStatements.resetValue();
+				}
+				if (!transactional) {
+					connection.setAutoCommit(originalAutoCommit);
+				}
+			} finally {
+				DataSourceUtils.releaseConnection(connection, dataSource);
+			}
+		}
+	}
+
+	/**
+	 * 提供 SQL Server bulk copy 讀取的單批資料
+	 * <p>
+	 * 欄位資訊於建構時由 entity 欄位與本批資料推算，SQLServerBulkCopy 只透過 getColumnOrdinals、getColumnType 等 getter 讀取；
+	 * addColumnMetadata 與時區格式設定是給呼叫端描述 CSV 檔案欄位用的 (見 SQLServerBulkCSVFileRecord)，driver 不會呼叫。
+	 */
+	private static class BatchBulkRecord implements ISQLServerBulkRecord {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<ColumnEntity> columns;
+
+		private final int[] sqlTypes;
+
+		private final List<Object[]> rowData;
+
+		private final int[] precisions;
+
+		private final int[] scales;
+
+		private int index = -1;
+
+		BatchBulkRecord(List<ColumnEntity> columns, int[] sqlTypes, List<Object[]> rowData) {
+			this.columns = columns;
+			this.sqlTypes = sqlTypes;
+			this.rowData = rowData;
+			this.precisions = new int[columns.size()];
+			this.scales = new int[columns.size()];
+			// 依本批資料推算長度與小數位數
+			for (Object[] row : rowData) {
+				for (int i = 0; i < row.length; i++) {
+					Object value = row[i];
+					if (value instanceof Date && !(value instanceof Timestamp)) {
+						row[i] = value = new Timestamp(((Date) value).getTime());
+					}
+					if (value instanceof BigDecimal) {
+						BigDecimal decimal = (BigDecimal) value;
+						precisions[i] = Math.max(precisions[i], decimal.precision());
+						scales[i] = Math.max(scales[i], decimal.scale());
+					} else if (value instanceof Timestamp) {
+						precisions[i] = 23;
+						scales[i] = 3;
+					} else if (value != null) {
+						precisions[i] = Math.max(precisions[i], String.valueOf(value).length());
+					}
+				}
+			}
+		}
+
+		@Override
+		public Set<Integer> getColumnOrdinals() {
+			Set<Integer> ordinals = new LinkedHashSet<>();
+			for (int i = 1; i <= columns.size(); i++) {
+				ordinals.add(i);
+			}
+			return ordinals;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return columns.get(column - 1).getColumnName();
+		}
+
+		@Override
+		public int getColumnType(int column) {
+			int type = sqlTypes[column - 1];
+			return type == Types.OTHER || type == SqlTypeValue.TYPE_UNKNOWN ? Types.VARCHAR : type;
+		}
+
+		@Override
+		public int getPrecision(int column) {
+			return Math.max(precisions[column - 1], 1);
+		}
+
+		@Override
+		public int getScale(int column) {
+			return scales[column - 1];
+		}
+
+		@Override
+		public boolean isAutoIncrement(int column) {
+			return false;
+		}
+
+		@Override
+		public Object[] getRowData() {
+			return rowData.get(index);
+		}
+
+		@Override
+		public boolean next() {
+			return ++index < rowData.size();
+		}
+
+		@Override
+		public void addColumnMetadata(int positionInFile, String name, int jdbcType, int precision, int scale, DateTimeFormatter dateTimeFormatter) {
+			throw new UnsupportedOperationException("Column metadata is derived from the entity");
+		}
+
+		@Override
+		public void addColumnMetadata(int positionInFile, String name, int jdbcType, int precision, int scale) {
+			throw new UnsupportedOperationException("Column metadata is derived from the entity");
+		}
+
+		@Override
+		public void setTimestampWithTimezoneFormat(String dateTimeFormat) {
+		}
+
+		@Override
+		public void setTimestampWithTimezoneFormat(DateTimeFormatter dateTimeFormatter) {
+		}
+
+		@Override
+		public void setTimeWithTimezoneFormat(String timeFormat) {
+		}
+
+		@Override
+		public void setTimeWithTimezoneFormat(DateTimeFormatter dateTimeFormatter) {
+		}
+
+		@Override
+		public DateTimeFormatter getColumnDateTimeFormatter(int column) {
+			return null;
+		}
+	}
+
+	/**
+	 * 匯入結果
+	 */
+	@Data
+	public static class BulkInsertResult {
+
+		private final long rows;
+
+		private final long batches;
+
+		private final long elapsedNanos;
+
+		public long getElapsedMillis() {
+			return elapsedNanos / 1_000_000;
+		}
+
+		public long getRowsPerSecond() {
+			return elapsedNanos > 0 ? rows * 1_000_000_000L / elapsedNanos : rows;
+		}
+	}
+}
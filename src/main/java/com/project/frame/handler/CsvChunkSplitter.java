@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.frame.handler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV 檔案切割工具
+ * <p>
+ * 以 memory-mapped 方式掃描檔案，依雙引號狀態找出完整的 record 邊界，將檔案切成多個 byte 區段供平行解析。
+ * 僅適用於與 ASCII 相容的編碼 (UTF-8、Big5、MS950 等)，雙引號與換行字元不會出現在多位元組字元中。
+ */
+final class CsvChunkSplitter {
+
+	private static final byte QUOTE = '"';
+
+	private static final byte LF = '\n';
+
+	private static final long SCAN_WINDOW = 64L * 1024 * 1024;
+
+	private CsvChunkSplitter() {
+	}
+
+	/**
+	 * 切割檔案，第一個 record (header) 不包含在任何區段內
+	 *
+	 * @param channel 檔案
+	 * @param chunkSize 每個區段的目標大小，實際大小會延伸到下一個 record 結尾
+	 * @return header 區段 + 資料區段，依檔案順序排列
+	 */
+	static List<Chunk> split(FileChannel channel, long chunkSize) throws IOException {
+		List<Chunk> chunks = new ArrayList<>();
+		long size = channel.size();
+		boolean inQuote = false;
+		long lines = 0;
+		long chunkStart = 0;
+		long chunkStartLine = 1;
+		// 第一個 record 為 header，獨立成一個區段
+		boolean header = true;
+
+		for (long windowStart = 0; windowStart < size; windowStart += SCAN_WINDOW) {
+			long windowSize = Math.min(SCAN_WINDOW, size - windowStart);
+			MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+			for (int i = 0; i < windowSize; i++) {
+				byte b = window.get(i);
+				if (b == QUOTE) {
+					// 跳脫的 "" 會切換兩次，狀態不變
+					inQuote = !inQuote;
+				} else if (b == LF) {
+					lines++;
+					long pos = windowStart + i + 1;
+					if (!inQuote && (header || pos - chunkStart >= chunkSize)) {
+						chunks.add(new Chunk(chunkStart, pos - chunkStart, chunkStartLine));
+						chunkStart = pos;
+						chunkStartLine = lines + 1;
+						header = false;
+					}
+				}
+			}
+		}
+		if (chunkStart < size) {
+			chunks.add(new Chunk(chunkStart, size - chunkStart, chunkStartLine));
+		}
+		return chunks;
+	}
+
+	/**
+	 * 檔案中的一段完整 record
+	 */
+	static final class Chunk {
+
+		final long position;
+
+		final long length;
+
+		/** 區段第一行於原始檔案的行號 (1 起算) */
+		final long startLine;
+
+		Chunk(long position, long length, long startLine) {
+			this.position = position;
+			this.length = length;
+			this.startLine = startLine;
+		}
+
+		InputStream open(FileChannel channel) throws IOException {
+			return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+		}
+	}
+
+	/**
+	 * 讀取 mapped buffer 的 InputStream，不複製資料
+	 */
+	static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.frame.handler;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * CSV 欄位綁定器
+ * <p>
+ * 每次上傳只解析一次 header 與 entity 欄位的對應，將建構子與 setter 編譯為 lambda (LambdaMetafactory)，
+ * 無法產生 lambda 時退回 MethodHandle，逐列綁定時不再做任何反射查詢。
+ * 編譯結果依 entity 類別與欄位快取，每個欄位只產生一次 lambda 類別，重複上傳不會持續佔用 metaspace。
+ *
+ * @param <E> entity
+ */
+@Slf4j
+public final class CsvRowBinder<E> {
+
+	private final Class<E> entityClazz;
+
+	private final Supplier<E> factory;
+
+	/** entity 類別已編譯的建構子與 setter，類別卸載時一併回收 */
+	private static final ClassValue<Accessors> ACCESSORS = new ClassValue<>() {
+		@Override
+		protected Accessors computeValue(Class<?> type) {
+			return new Accessors();
+		}
+	};
+
+	/** 每一欄的 setter，找不到欄位時為 null */
+	private final List<BiConsumer<Object, Object>> setters;
+
+	private CsvRowBinder(Class<E> entityClazz, Supplier<E> factory, List<BiConsumer<Object, Object>> setters) {
+		this.entityClazz = entityClazz;
+		this.factory = factory;
+		this.setters = setters;
+	}
+
+	/**
+	 * 依欄位順序編譯綁定器，找不到的欄位 (例如 "Empty Header") 直接略過
+	 *
+	 * @param entityClazz entity 類別，需有無參數建構子
+	 * @param fieldNames 每一欄對應的 entity 欄位名稱
+	 * @return 綁定器
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> CsvRowBinder<E> compile(Class<E> entityClazz, List<String> fieldNames) throws ReflectiveOperationException {
+		Accessors accessors = ACCESSORS.get(entityClazz);
+		MethodHandles.Lookup lookup = null;
+		List<BiConsumer<Object, Object>> setters = new ArrayList<>(fieldNames.size());
+		for (String fieldName : fieldNames) {
+			BiConsumer<Object, Object> setter = null;
+			if (StringUtils.isNotEmpty(fieldName)) {
+				setter = accessors.setters.get(fieldName);
+				if (setter == null) {
+					Field field;
+					try {
+						field = entityClazz.getDeclaredField(fieldName);
+					} catch (NoSuchFieldException e) {
+						setters.add(null);
+						continue;
+					}
+					if (lookup == null) {
+						lookup = MethodHandles.privateLookupIn(entityClazz, MethodHandles.lookup());
+					}
+					// 同時編譯時只保留先完成的一份
+					BiConsumer<Object, Object> compiled = compileSetter(lookup, entityClazz, field);
+					BiConsumer<Object, Object> existing = accessors.setters.putIfAbsent(fieldName, compiled);
+					setter = existing != null ? existing : compiled;
+				}
+			}
+			setters.add(setter);
+		}
+		Supplier<E> factory = (Supplier<E>) accessors.factory;
+		if (factory == null) {
+			if (lookup == null) {
+				lookup = MethodHandles.privateLookupIn(entityClazz, MethodHandles.lookup());
+			}
+			factory = compileFactory(lookup, entityClazz);
+			accessors.factory = factory;
+		}
+		return new CsvRowBinder<>(entityClazz, factory, setters);
+	}
+
+	public Class<E> getEntityClazz() {
+		return entityClazz;
+	}
+
+	/**
+	 * 將一列已經過 CellProcessor 轉型的資料寫入新的 entity，空值保留 entity 預設值
+	 *
+	 * @param row 單列資料，呼叫端可重複使用同一個 List
+	 * @return entity
+	 */
+	public E bind(List<Object> row) {
+		E obj = factory.get();
+		int size = Math.min(row.size(), setters.size());
+		for (int i = 0; i < size; i++) {
+			BiConsumer<Object, Object> setter = setters.get(i);
+			Object value = row.get(i);
+			if (setter != null && value != null) {
+				setter.accept(obj, value);
+			}
+		}
+		return obj;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E> Supplier<E> compileFactory(MethodHandles.Lookup lookup, Class<E> entityClazz) throws ReflectiveOperationException {
+		MethodHandle constructor = lookup.findConstructor(entityClazz, MethodType.methodType(void.class));
+		try {
+			CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class), MethodType.methodType(Object.class), constructor, MethodType.methodType(entityClazz));
+			return (Supplier<E>) site.getTarget().invoke();
+		} catch (Throwable e) {
+			log.debug("LambdaMetafactory not available for {}, fallback to MethodHandle: {}", entityClazz.getName(), e.getMessage());
+		}
+		MethodHandle generic = constructor.asType(MethodType.methodType(Object.class));
+		return () -> {
+			try {
+				return (E) generic.invokeExact();
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Can not create instance of " + entityClazz.getName(), e);
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> compileSetter(MethodHandles.Lookup lookup, Class<?> entityClazz, Field field) throws IllegalAccessException {
+		Method setter = findSetter(entityClazz, field);
+		if (setter != null) {
+			try {
+				CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class), MethodType.methodType(void.class, Object.class, Object.class), lookup.unreflect(setter),
+						MethodType.methodType(void.class, entityClazz, ClassUtils.primitiveToWrapper(field.getType())));
+				return (BiConsumer<Object, Object>) site.getTarget().invoke();
+			} catch (Throwable e) {
+				log.debug("LambdaMetafactory not available for {}.{}, fallback to MethodHandle: {}", entityClazz.getName(), field.getName(), e.getMessage());
+			}
+		}
+		MethodHandle generic = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return (obj, value) -> {
+			try {
+				generic.invokeExact(obj, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Can not set field " + field.getName(), e);
+			}
+		};
+	}
+
+	private static Method findSetter(Class<?> entityClazz, Field field) {
+		String name = "set" + StringUtils.capitalize(field.getName());
+		try {
+			Method method = entityClazz.getMethod(name, field.getType());
+			return method.getDeclaringClass() == entityClazz ? method : null;
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	/** 單一 entity 類別的編譯快取，數量以該類別的欄位數為上限 */
+	private static final class Accessors {
+
+		private final ConcurrentHashMap<String, BiConsumer<Object, Object>> setters = new ConcurrentHashMap<>();
+
+		private volatile Supplier<?> factory;
+	}
+}
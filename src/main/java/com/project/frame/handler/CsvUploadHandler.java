@@ -6,17 +6,29 @@ package com.project.frame.handler;
 
 import jakarta.validation.constraints.NotNull;
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.lang.Nullable;
@@ -28,12 +40,24 @@ import org.supercsv.cellprocessor.ParseDouble;
 import org.supercsv.cellprocessor.ParseInt;
 import org.supercsv.cellprocessor.ParseLong;
 import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.exception.SuperCsvException;
+import org.supercsv.io.AbstractCsvReader;
 import org.supercsv.io.CsvMapReader;
 import org.supercsv.io.ICsvMapReader;
 import org.supercsv.prefs.CsvPreference;
+import org.supercsv.util.CsvContext;
 
 public class CsvUploadHandler<E> {
 
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	public static final long DEFAULT_CHUNK_SIZE = 8L * 1024 * 1024;
+
+	/** 同時解析中與等待交付的區段原始大小上限，至少保留一個區段 */
+	public static final long MAX_PENDING_BYTES = 128L * 1024 * 1024;
+
+	private static final long MAX_CHUNK_SIZE = 1024L * 1024 * 1024;
+
 	private Class<E> entityClazz;
 
 	public CsvUploadHandler(@Nullable Class<E> entityClazz) {
@@ -80,6 +104,152 @@ public class CsvUploadHandler<E> {
 		return result;
 	}
 
+	/**
+	 * 串流讀取 CSV，每累積 batchSize 筆即交給 batchConsumer 處理，不將整份檔案保留在記憶體
+	 * <p>
+	 * header 與欄位的對應只編譯一次 (見 {@link CsvRowBinder})，整個檔案共用同一個 row buffer。
+	 *
+	 * @param fio CSV 檔案
+	 * @param customHeader 每一欄對應的 entity 欄位名稱
+	 * @param encoding 檔案編碼，預設 Utf8
+	 * @param batchSize 每批筆數，小於 1 時使用 {@link #DEFAULT_BATCH_SIZE}
+	 * @param batchConsumer 每批資料的處理者，每批皆為新的 List
+	 * @return 讀取的總筆數
+	 * @throws Exception
+	 */
+	public long readWithCsvStreamReader(InputStream fio, List<String> customHeader, String encoding, int batchSize, Consumer<List<E>> batchConsumer) throws Exception {
+		Class<E> clazz = this.entityClazz;
+		int size = batchSize < 1 ? DEFAULT_BATCH_SIZE : batchSize;
+		encoding = encoding == null ? "Utf8" : encoding;
+		long total = 0;
+		try (InputStreamReader isReader = new InputStreamReader(fio, encoding);
+				Reader reader = new BufferedReader(isReader);
+				RowBufferCsvReader rowReader = new RowBufferCsvReader(reader, CsvPreference.STANDARD_PREFERENCE);) {
+
+			String[] header = rowReader.getHeader(true);
+			fitCustomHeader(header, customHeader);
+			CellProcessor[] processors = getProcessors(customHeader, clazz);
+			CsvRowBinder<E> binder = CsvRowBinder.compile(clazz, customHeader);
+
+			List<Object> row = new ArrayList<>(header.length);
+			List<E> batch = new ArrayList<>(size);
+			while (rowReader.read(row, processors)) {
+				batch.add(binder.bind(row));
+				total++;
+				if (batch.size() >= size) {
+					batchConsumer.accept(batch);
+					batch = new ArrayList<>(size);
+				}
+			}
+			if (!batch.isEmpty()) {
+				batchConsumer.accept(batch);
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * 平行讀取大型 CSV，先將上傳內容寫入暫存檔，再切成多個區段於 ForkJoinPool 平行解析
+	 *
+	 * @see #readWithCsvParallelReader(Path, List, String, int, long, Consumer)
+	 */
+	public long readWithCsvParallelReader(InputStream fio, List<String> customHeader, String encoding, int parallelism, long chunkSize, Consumer<List<E>> chunkConsumer) throws Exception {
+		Path tempFile = Files.createTempFile("csv_", ".tmp");
+		try {
+			Files.copy(fio, tempFile, StandardCopyOption.REPLACE_EXISTING);
+			return readWithCsvParallelReader(tempFile, customHeader, encoding, parallelism, chunkSize, chunkConsumer);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * 平行讀取大型 CSV
+	 * <p>
+	 * 檔案以 memory-mapped 方式依完整 record 邊界切割 (見 {@link CsvChunkSplitter})，各區段使用相同的 CellProcessor 規則解析。
+	 * chunkConsumer 依檔案順序接收各區段結果，同時最多保留 parallelism * 2 個區段，且原始大小合計不超過
+	 * {@link #MAX_PENDING_BYTES} (單一區段超過時一次只處理一個)。
+	 * 轉型錯誤的 {@link SuperCsvException} 行號為原始檔案行號。
+	 *
+	 * @param file CSV 檔案，編碼需與 ASCII 相容
+	 * @param customHeader 每一欄對應的 entity 欄位名稱
+	 * @param encoding 檔案編碼，預設 Utf8
+	 * @param parallelism 平行數，小於 1 時使用 CPU 核心數
+	 * @param chunkSize 每個區段的大小 (byte)，小於 1 時使用 {@link #DEFAULT_CHUNK_SIZE}
+	 * @param chunkConsumer 區段資料的處理者
+	 * @return 讀取的總筆數
+	 * @throws Exception
+	 */
+	public long readWithCsvParallelReader(Path file, List<String> customHeader, String encoding, int parallelism, long chunkSize, Consumer<List<E>> chunkConsumer) throws Exception {
+		Class<E> clazz = this.entityClazz;
+		Charset charset = Charset.forName(encoding == null ? "Utf8" : encoding);
+		int threads = parallelism < 1 ? Runtime.getRuntime().availableProcessors() : parallelism;
+		long size = chunkSize < 1 ? DEFAULT_CHUNK_SIZE : Math.min(chunkSize, MAX_CHUNK_SIZE);
+		long total = 0;
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			List<CsvChunkSplitter.Chunk> chunks = CsvChunkSplitter.split(channel, size);
+			if (chunks.isEmpty()) {
+				return 0;
+			}
+
+			String[] header;
+			try (RowBufferCsvReader headerReader = new RowBufferCsvReader(new InputStreamReader(chunks.get(0).open(channel), charset), CsvPreference.STANDARD_PREFERENCE)) {
+				header = headerReader.getHeader(true);
+			}
+			if (header == null) {
+				return 0;
+			}
+			fitCustomHeader(header, customHeader);
+			CsvRowBinder<E> binder = CsvRowBinder.compile(clazz, customHeader);
+
+			// 依檔案順序交付結果，限制同時處理中的區段數量以控制記憶體
+			Deque<ForkJoinTask<List<E>>> window = new ArrayDeque<>();
+			Deque<CsvChunkSplitter.Chunk> windowChunks = new ArrayDeque<>();
+			long pendingBytes = 0;
+			int next = 1;
+			while (next < chunks.size() || !window.isEmpty()) {
+				while (next < chunks.size() && window.size() < threads * 2
+						&& (window.isEmpty() || pendingBytes + chunks.get(next).length <= MAX_PENDING_BYTES)) {
+					CsvChunkSplitter.Chunk chunk = chunks.get(next++);
+					pendingBytes += chunk.length;
+					windowChunks.add(chunk);
+					window.add(pool.submit(() -> readChunk(channel, chunk, charset, customHeader, binder)));
+				}
+				List<E> rows = window.poll().join();
+				pendingBytes -= windowChunks.poll().length;
+				total += rows.size();
+				chunkConsumer.accept(rows);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		return total;
+	}
+
+	private List<E> readChunk(FileChannel channel, CsvChunkSplitter.Chunk chunk, Charset charset, List<String> customHeader, CsvRowBinder<E> binder) throws Exception {
+		List<E> result = new ArrayList<>();
+		CellProcessor[] processors = getProcessors(customHeader, binder.getEntityClazz());
+		try (Reader reader = new BufferedReader(new InputStreamReader(chunk.open(channel), charset));
+				RowBufferCsvReader rowReader = new RowBufferCsvReader(reader, CsvPreference.STANDARD_PREFERENCE)) {
+			List<Object> row = new ArrayList<>(processors.length);
+			try {
+				while (rowReader.read(row, processors)) {
+					result.add(binder.bind(row));
+				}
+			} catch (SuperCsvException e) {
+				// 換算為原始檔案行號
+				CsvContext context = e.getCsvContext();
+				if (context != null) {
+					context.setLineNumber((int) (chunk.startLine + context.getLineNumber() - 1));
+				}
+				throw e;
+			}
+		}
+		return result;
+	}
+
 	private void fitCustomHeader(String[] header, List<String> customHeader) {
 		if (header.length != customHeader.size()) {
 
@@ -206,4 +376,22 @@ public class CsvUploadHandler<E> {
 			}
 		}
 	}
+
+	/**
+	 * 將每列資料轉型後寫入呼叫端提供的 buffer，避免每列建立新的 List/Map
+	 */
+	static class RowBufferCsvReader extends AbstractCsvReader {
+
+		RowBufferCsvReader(Reader reader, CsvPreference preferences) {
+			super(reader, preferences);
+		}
+
+		boolean read(List<Object> row, CellProcessor[] processors) throws IOException {
+			if (!readRow()) {
+				return false;
+			}
+			executeProcessors(row, processors);
+			return true;
+		}
+	}
 }
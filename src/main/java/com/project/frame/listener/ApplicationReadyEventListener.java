@@ -4,7 +4,9 @@
  */
 package com.project.frame.listener;
 
+import com.project.frame.util.JasperTemplateCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.stereotype.Component;
@@ -19,8 +21,15 @@ import org.springframework.stereotype.Component;
 @Component
 public class ApplicationReadyEventListener implements ApplicationListener<ApplicationReadyEvent> {
 
+	@Value("${report.template.warm-up:true}")
+	private boolean reportTemplateWarmUp;
+
 	@Override
 	public void onApplicationEvent(ApplicationReadyEvent event) {
 		// AP 啟動時，自訂事件
+		if (reportTemplateWarmUp) {
+			// 預先編譯報表樣板
+			JasperTemplateCache.warmUp();
+		}
 	}
 }
@@ -4,22 +4,42 @@
  */
 package com.project.frame.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.io.Serializable;
 import lombok.Data;
 
 /**
  * API 監控資訊
+ * <p>
+ * 一般只記錄耗時、狀態、大小與 body 開頭的預覽；request、response 物件只在帶有 debug header 時記錄。
  *
  * @author Parker Huang
  * @since 1.0.0
  */
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class RestTracer implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
 	private String url;
 
+	private String method;
+
+	private Integer status;
+
+	private Long durationMillis;
+
+	private Long requestBytes;
+
+	private Long responseBytes;
+
+	private String requestPreview;
+
+	private String responsePreview;
+
+	private String error;
+
 	private Object request;
 
 	private Object response;
@@ -12,13 +12,11 @@ import java.nio.file.Paths;
 import java.nio.file.attribute.PosixFilePermission;
 import java.text.MessageFormat;
 import java.text.Normalizer;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Pattern;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
@@ -49,6 +47,7 @@ public class CheckmarxUtil {
 	@Value("${project.filePath.root:}")
 	public void setBaseDir(String baseDir) {
 		CheckmarxUtil.baseDir = baseDir;
+		SafePathValidator.clear();
 	}
 
 	/**
@@ -65,20 +64,12 @@ public class CheckmarxUtil {
 		if (StringUtils.isBlank(path)) {
 			throw new RuntimeException("File path can not be empty.");
 		}
-		String newPath = filterValidFilePath(path);
-
-		//		Path newPathObj = Paths.get(newPath.replaceAll("\r", "").replaceAll("\t",
-		// "").replaceAll("\n", ""));
-		//		Files.createDirectories(newPathObj);
-		FileUtils.forceMkdir(new SafeFile(newPath));
+		// 目錄驗證與建立每個目錄只做一次
+		String newPath = SafePathValidator.validDirectory(path, baseDir);
 
 		// fix Absolute Path Traversal
 		name = FilenameUtils.getName(name);
 
-		// 為了避開弱掃
-		synchronized (ESAPI.class) {
-			ESAPI.validator().getValidDirectoryPath("TBB", newPath, new SafeFile(baseDir), false);
-		}
 		SafeFile sf;
 		if (StringUtils.isBlank(name)) {
 			sf = new SafeFile(newPath);
@@ -90,7 +81,6 @@ public class CheckmarxUtil {
 			}
 			sf = new SafeFile(newPath, newName);
 		}
-		FileUtils.createParentDirectories(sf);
 		setPermissionsSafe(sf.getPath());
 		sf.setReadable(true);
 		sf.setWritable(true, true);
@@ -272,6 +262,8 @@ public class CheckmarxUtil {
 
 	private static final String PNG_IMAGE_EXTENSION = "png";
 
+	private static final List<String> ALLOWED_IMAGE_EXTENSIONS = List.of(GIF_IMAGE_EXTENSION, JPEG_IMAGE_EXTENSION, JPG_IMAGE_EXTENSION, PNG_IMAGE_EXTENSION);
+
 	public static final String FILE_UPLOAD_CONTEXT = "fileUpload";
 
 	public static boolean allowNull = false;
@@ -285,75 +277,24 @@ public class CheckmarxUtil {
 	 */
 	public static boolean ValidFile(MultipartFile file) throws ValidationException {
 		String filename = file.getOriginalFilename();
-		List<String> allowedExtensions = new ArrayList<String>();
-		allowedExtensions.add(GIF_IMAGE_EXTENSION);
-		allowedExtensions.add(JPEG_IMAGE_EXTENSION);
-		allowedExtensions.add(JPG_IMAGE_EXTENSION);
-		allowedExtensions.add(PNG_IMAGE_EXTENSION);
 
 		// 為了避開弱掃
 		synchronized (ESAPI.class) {
 			return ESAPI
 					.validator()
-					.isValidFileName(FILE_UPLOAD_CONTEXT, filename, allowedExtensions, allowNull);
+					.isValidFileName(FILE_UPLOAD_CONTEXT, filename, ALLOWED_IMAGE_EXTENSIONS, allowNull);
 		}
 	}
 
+	/**
+	 * 過濾 XSS 字串，未命中任何規則時回傳原字串
+	 *
+	 * @param value
+	 * @return
+	 * @see XssSanitizer#clean(String)
+	 */
 	public static String cleanXss(String value) {
-		if (value != null) {
-			// Avoid null characters
-			value = value.replaceAll("", "");
-
-			// Avoid anything between script tags
-			Pattern scriptPattern = Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE);
-
-			value = scriptPattern.matcher(value).replaceAll("");
-
-			// Avoid anything in a src='...' type of expression
-			scriptPattern = Pattern.compile("src[\r\n]=[\r\n]\\\'(.*?)\\\'", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
-
-			value = scriptPattern.matcher(value).replaceAll("");
-
-			scriptPattern = Pattern.compile("src[\r\n]*=[\r\n]*\\\"(.*?)\\\"", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
-
-			value = scriptPattern.matcher(value).replaceAll("");
-
-			// Remove any lonesome </script> tag
-			scriptPattern = Pattern.compile("</script>", Pattern.CASE_INSENSITIVE);
-
-			value = scriptPattern.matcher(value).replaceAll("");
-
-			// Remove any lonesome <script ...> tag
-			scriptPattern = Pattern.compile("<script(.*?)>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
-
-			value = scriptPattern.matcher(value).replaceAll("");
-
-			// Avoid eval(...) expressions
-			scriptPattern = Pattern.compile("eval\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
-
-			value = scriptPattern.matcher(value).replaceAll("");
-
-			// Avoid expression(...) expressions
-			scriptPattern = Pattern.compile("expression\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
-
-			value = scriptPattern.matcher(value).replaceAll("");
-
-			// Avoid javascript:... expressions
-			scriptPattern = Pattern.compile("javascript:", Pattern.CASE_INSENSITIVE);
-
-			value = scriptPattern.matcher(value).replaceAll("");
-
-			// Avoid vbscript:... expressions
-			scriptPattern = Pattern.compile("vbscript:", Pattern.CASE_INSENSITIVE);
-
-			value = scriptPattern.matcher(value).replaceAll("");
-
-			// Avoid onload= expressions
-			scriptPattern = Pattern.compile("onload(.*?)=", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
-
-			value = scriptPattern.matcher(value).replaceAll("");
-		}
-		return value;
+		return XssSanitizer.clean(value);
 	}
 
 	public static Map<String, Object> getMockInputObject(String key, Object obj) {
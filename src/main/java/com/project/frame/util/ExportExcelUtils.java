@@ -5,20 +5,31 @@
 package com.project.frame.util;
 
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.poi.hssf.usermodel.HSSFCell;
 import org.apache.poi.hssf.usermodel.HSSFCellStyle;
 import org.apache.poi.hssf.usermodel.HSSFRow;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 /**
  * Excel生成工具
@@ -29,6 +40,21 @@ import org.apache.poi.ss.usermodel.HorizontalAlignment;
 @Slf4j
 public class ExportExcelUtils {
 
+  /** SXSSF 保留在記憶體中的列數，超過的列會寫入壓縮暫存檔 */
+  private static final int ROW_ACCESS_WINDOW = 500;
+
+  /** 用來估算欄寬的取樣列數 */
+  private static final int WIDTH_SAMPLE_ROWS = 100;
+
+  /** xlsx 單一工作表的最大列數 */
+  private static final int MAX_SHEET_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+  /** 工作表名稱長度上限 */
+  private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+  /** Excel 欄寬上限 (1/256 字元) */
+  private static final int MAX_COLUMN_WIDTH = 255 * 256;
+
   /**
    * 導出Excel
    *
@@ -78,6 +104,129 @@ public class ExportExcelUtils {
     }
   }
 
+  /**
+   * 以串流方式導出 xlsx
+   *
+   * @see #exportXlsx(String, Iterator, Map, HttpServletResponse)
+   */
+  public static <T> void exportXlsx(
+      String excelName, Stream<T> stream, Map<String, String> fieldMap, HttpServletResponse response) {
+    try (Stream<T> rows = stream) {
+      exportXlsx(excelName, rows.iterator(), fieldMap, response);
+    }
+  }
+
+  /**
+   * 以串流方式導出 xlsx，資料逐筆讀取並直接寫入 response，記憶體中僅保留 {@link #ROW_ACCESS_WINDOW} 列；
+   * 欄寬依前 {@link #WIDTH_SAMPLE_ROWS} 列估算，超過單一工作表列數上限時自動新增工作表
+   *
+   * @param excelName 要導出的excel名稱
+   * @param rows 要導出的數據
+   * @param fieldMap 中英文欄位對應Map，即要導出的excel表頭
+   * @param response 使用response可以導出到瀏覽器
+   */
+  public static <T> void exportXlsx(
+      String excelName, Iterator<T> rows, Map<String, String> fieldMap, HttpServletResponse response) {
+
+    // 設置默認文件名為當前時間：年月日時分秒
+    if (excelName == null || excelName == "") {
+      excelName = DateFormatUtils.format(new Date(), "yyyyMMddhhmmss");
+    }
+    // 設置response頭資訊
+    response.reset();
+    response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+    try {
+      response.setHeader(
+          "Content-disposition",
+          "attachment; filename=" + new String(excelName.getBytes("UTF-8")) + ".xlsx");
+    } catch (UnsupportedEncodingException e1) {
+      log.info("Set Response Head Failed!! : " + e1.getMessage());
+    }
+
+    // 壓縮暫存檔，降低大量資料時的磁碟用量
+    SXSSFWorkbook wb = new SXSSFWorkbook(null, ROW_ACCESS_WINDOW, true);
+    try (OutputStream ouputStream = response.getOutputStream()) {
+      CellStyle style = wb.createCellStyle();
+      style.setAlignment(HorizontalAlignment.CENTER);
+      fillStreamingSheets(wb, excelName, rows, fieldMap, style);
+
+      // 將文件輸出
+      wb.write(ouputStream);
+    } catch (Exception e) {
+      log.info("導出Excel失敗！");
+      log.error(e.getMessage());
+    } finally {
+      // 刪除暫存檔
+      wb.dispose();
+      try {
+        wb.close();
+      } catch (IOException e) {
+        log.debug("Close workbook failed: {}", e.getMessage());
+      }
+    }
+  }
+
+  private static <T> void fillStreamingSheets(
+      SXSSFWorkbook wb,
+      String excelName,
+      Iterator<T> rows,
+      Map<String, String> fieldMap,
+      CellStyle style)
+      throws Exception {
+    String[] enFields = fieldMap.keySet().toArray(new String[0]);
+    String[] cnFields = fieldMap.values().toArray(new String[0]);
+    int[] widths = new int[cnFields.length];
+    for (int i = 0; i < cnFields.length; i++) {
+      widths[i] = estimateWidth(cnFields[i]);
+    }
+
+    int sheetIndex = 0;
+    long total = 0;
+    do {
+      String suffix = sheetIndex == 0 ? "" : "_" + (sheetIndex + 1);
+      String sheetName =
+          WorkbookUtil.createSafeSheetName(
+              StringUtils.left(excelName, MAX_SHEET_NAME_LENGTH - suffix.length()) + suffix);
+      SXSSFSheet sheet = wb.createSheet(sheetName);
+      Row header = sheet.createRow(0);
+      for (int i = 0; i < cnFields.length; i++) {
+        Cell cell = header.createCell(i);
+        cell.setCellValue(cnFields[i]);
+        cell.setCellStyle(style);
+      }
+
+      int rowIndex = 1;
+      while (rows.hasNext() && rowIndex < MAX_SHEET_ROWS) {
+        T item = rows.next();
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < enFields.length; i++) {
+          Object objValue = PropertyAccessorUtil.getValue(enFields[i], item);
+          String fieldValue = objValue == null ? "" : objValue.toString();
+          row.createCell(i).setCellValue(fieldValue);
+          if (total < WIDTH_SAMPLE_ROWS) {
+            widths[i] = Math.max(widths[i], estimateWidth(fieldValue));
+          }
+        }
+        total++;
+      }
+
+      for (int i = 0; i < widths.length; i++) {
+        sheet.setColumnWidth(i, widths[i]);
+      }
+      sheetIndex++;
+    } while (rows.hasNext());
+    log.info("向工作表中填充數據:{} 筆, {} 個工作表", total, sheetIndex);
+  }
+
+  /** 估算欄寬，全形字元以兩個字元計算 */
+  private static int estimateWidth(String value) {
+    int chars = 0;
+    for (int i = 0; i < value.length(); i++) {
+      chars += value.charAt(i) > 0x7F ? 2 : 1;
+    }
+    return Math.min(MAX_COLUMN_WIDTH, (chars + 2) * 256);
+  }
+
   /**
    * 根據欄位名獲取欄位對象
    *
@@ -200,7 +349,7 @@ public class ExportExcelUtils {
       // 獲取單個對象
       T item = list.get(index);
       for (int i = 0; i < enFields.length; i++) {
-        Object objValue = getFieldValueByNameSequence(enFields[i], item);
+        Object objValue = PropertyAccessorUtil.getValue(enFields[i], item);
         String fieldValue = objValue == null ? "" : objValue.toString();
 
         row.createCell(i).setCellValue(fieldValue);
@@ -5,7 +5,7 @@
 package com.project.frame.util;
 
 import com.project.frame.model.enums.ExportType;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -17,48 +17,82 @@ import java.util.Map;
 import jakarta.servlet.http.HttpServletResponse;
 import net.sf.jasperreports.engine.JREmptyDataSource;
 import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
 import net.sf.jasperreports.engine.JRPrintElement;
 import net.sf.jasperreports.engine.JRPrintPage;
-import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JRVirtualizer;
 import net.sf.jasperreports.engine.JasperFillManager;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
 import net.sf.jasperreports.engine.export.JRPdfExporter;
 import net.sf.jasperreports.engine.export.JRXlsExporter;
+import net.sf.jasperreports.engine.fill.JRAbstractLRUVirtualizer;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
 import net.sf.jasperreports.engine.fill.JRTemplatePrintText;
 import net.sf.jasperreports.engine.fill.JRTemplateText;
+import net.sf.jasperreports.engine.util.JRSwapFile;
 import net.sf.jasperreports.export.SimpleExporterInput;
 import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
 import net.sf.jasperreports.export.SimpleXlsReportConfiguration;
+import org.apache.commons.lang3.StringUtils;
 import org.owasp.esapi.errors.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
 @Service
 public class JasperReportUtil {
 
-	private static final String JRXML_SUFFIX = ".jrxml";
-
 	private static final String PDF_SUFFIX = ".pdf";
 
 	private static final String EXCEL_SUFFIX = ".xls";
 
+	private static final String EUDC_STYLE_START = "<style fontName=\"EUDC\">";
+
+	private static final String EUDC_STYLE_END = "</style>";
+
+	private static final int PARALLEL_PAGE_THRESHOLD = 50;
+
+	private static final int SWAP_BLOCK_SIZE = 4096;
+
+	private static final int SWAP_MIN_GROW_COUNT = 100;
+
+	private static int virtualizerMaxSize;
+
+	private static String virtualizerDir;
+
+	@Value("${report.virtualizer.max-size:0}")
+	public void setVirtualizerMaxSize(int virtualizerMaxSize) {
+		JasperReportUtil.virtualizerMaxSize = virtualizerMaxSize;
+	}
+
+	@Value("${report.virtualizer.dir:}")
+	public void setVirtualizerDir(String virtualizerDir) {
+		JasperReportUtil.virtualizerDir = virtualizerDir;
+	}
+
 	public static File generateReport(String filePath, String fileName, String jrxmlPath, String jrxmlName, Map<String, Object> params, ExportType exportType) throws Exception {
-		// 輸出的格式, 目前僅允許 PDF ( jrstyle=pdf ) 及 EXCEL ( jrstyle=xls )
-		JasperPrint jasperPrint = getJasperPrint(jrxmlPath, jrxmlName, params);
-		removeBlankPage(jasperPrint.getPages());
-		switch (exportType) {
-			case PDF:
-				return savePDFReport(filePath, fileName, jasperPrint);
-			case EXCEL:
-				return saveExcelReport(filePath, fileName, jasperPrint);
-			default:
-				return null;
+		JRVirtualizer virtualizer = newVirtualizer();
+		try {
+			// 輸出的格式, 目前僅允許 PDF ( jrstyle=pdf ) 及 EXCEL ( jrstyle=xls )
+			JasperPrint jasperPrint = getJasperPrint(jrxmlPath, jrxmlName, params, virtualizer);
+			removeBlankPage(jasperPrint.getPages());
+			switch (exportType) {
+				case PDF:
+					return savePDFReport(filePath, fileName, jasperPrint);
+				case EXCEL:
+					return saveExcelReport(filePath, fileName, jasperPrint);
+				default:
+					return null;
+			}
+		} finally {
+			cleanup(virtualizer);
 		}
 	}
 
 	/**
+	 * 報表直接寫入 response，不在記憶體中暫存整份檔案 (長度未知，以 chunked 傳輸)
+	 *
 	 * @apiNote
 	 * @param response
 	 * @param jrxmlPath jrxml文件路徑
@@ -70,97 +104,111 @@ public class JasperReportUtil {
 	 * @throws IOException
 	 */
 	public static void export(HttpServletResponse response, String jrxmlPath, String jrxmlName, Map<String, Object> params, ExportType exportType) throws Exception {
-		JasperPrint jasperPrint = getJasperPrint(jrxmlPath, jrxmlName, params);
-		// 輸出的格式, 目前僅允許 PDF ( jrstyle=pdf ) 及 EXCEL ( jrstyle=xls )
-		if (response != null) {
-			switch (exportType) {
-				case PDF:
-					exportPDFReport(response, jasperPrint);
-					break;
-				case EXCEL:
-					exportExcelReport(response, jasperPrint);
-					break;
+		JRVirtualizer virtualizer = newVirtualizer();
+		try {
+			JasperPrint jasperPrint = getJasperPrint(jrxmlPath, jrxmlName, params, virtualizer);
+			// 輸出的格式, 目前僅允許 PDF ( jrstyle=pdf ) 及 EXCEL ( jrstyle=xls )
+			if (response != null) {
+				switch (exportType) {
+					case PDF:
+						exportPDFReport(response, jasperPrint);
+						break;
+					case EXCEL:
+						exportExcelReport(response, jasperPrint);
+						break;
+				}
 			}
+		} finally {
+			cleanup(virtualizer);
 		}
 	}
 
-	private static JasperPrint getJasperPrint(String jrxmlPath, String jrxmlName, Map<String, Object> params) throws Exception {
-		if (params == null) {
-			params = new HashMap<>();
+	private static JasperPrint getJasperPrint(String jrxmlPath, String jrxmlName, Map<String, Object> params, JRVirtualizer virtualizer) throws Exception {
+		params = params == null ? new HashMap<>() : new HashMap<>(params);
+		if (virtualizer != null) {
+			params.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
 		}
-		Resource resource = new ClassPathResource(File.separator + jrxmlPath + File.separator + jrxmlName + JRXML_SUFFIX);
-		String jrxmlFile = resource.getFile().getPath();
-
-		JasperReport jasperReport = JasperCompileManager.compileReport(jrxmlFile);
+		JasperReport jasperReport = JasperTemplateCache.getReport(jrxmlPath, jrxmlName);
 		JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, params, new JREmptyDataSource());
-		return changeFontGenReport(jasperPrint);
+		return changeFontGenReport(jasperPrint, virtualizer != null);
+	}
+
+	/**
+	 * 頁數多的報表於填值時將頁面換出至暫存檔，未設定 report.virtualizer.max-size 時不啟用
+	 * <p>
+	 * 不設為 read only，難字轉換後的頁面再次換出時才會寫回暫存檔
+	 */
+	private static JRVirtualizer newVirtualizer() {
+		if (virtualizerMaxSize <= 0) {
+			return null;
+		}
+		String directory = StringUtils.defaultIfBlank(virtualizerDir, System.getProperty("java.io.tmpdir"));
+		return new JRSwapFileVirtualizer(virtualizerMaxSize, new JRSwapFile(directory, SWAP_BLOCK_SIZE, SWAP_MIN_GROW_COUNT), true);
+	}
+
+	private static void cleanup(JRVirtualizer virtualizer) {
+		if (virtualizer instanceof JRAbstractLRUVirtualizer) {
+			((JRAbstractLRUVirtualizer) virtualizer).cleanup();
+		}
 	}
 
 	// generate PDF
 	private static File savePDFReport(String filePath, String fileName, JasperPrint jasperPrint) throws IOException, JRException, ValidationException {
 		filePath = new ClassPathResource(File.separator).getPath() + filePath;
 		File file = CheckmarxUtil.newFileSafely(filePath + File.separator, fileName + PDF_SUFFIX);
-		try (ByteArrayOutputStream pdfOutStream = getPdfOutputStream(jasperPrint);
-				OutputStream outputStream = new FileOutputStream(file);) {
-			pdfOutStream.writeTo(outputStream);
+		try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));) {
+			writePdf(jasperPrint, outputStream);
 			return file;
 		}
 	}
 
 	private static void exportPDFReport(HttpServletResponse response, JasperPrint jasperPrint) throws JRException, IOException {
-		try (OutputStream ouputStream = response.getOutputStream();
-				ByteArrayOutputStream pdfOutStream = getPdfOutputStream(jasperPrint);) {
-			byte bytes[] = pdfOutStream.toByteArray();
-			response.reset();
-			response.setContentType("application/pdf");
-			ouputStream.write(bytes, 0, bytes.length);
+		// header 需在取得 output stream 前設定
+		response.reset();
+		response.setContentType("application/pdf");
+		try (OutputStream ouputStream = response.getOutputStream();) {
+			writePdf(jasperPrint, ouputStream);
 		}
 	}
 
-	private static ByteArrayOutputStream getPdfOutputStream(JasperPrint jasperPrint) throws IOException, JRException {
-		ByteArrayOutputStream pdfOutStream = new ByteArrayOutputStream();
+	private static void writePdf(JasperPrint jasperPrint, OutputStream outputStream) throws JRException {
 		JRPdfExporter exporter = new JRPdfExporter();
 		SimpleExporterInput exporterInput = new SimpleExporterInput(jasperPrint);
-		SimpleOutputStreamExporterOutput exporterOutput = new SimpleOutputStreamExporterOutput(pdfOutStream);
+		SimpleOutputStreamExporterOutput exporterOutput = new SimpleOutputStreamExporterOutput(outputStream);
 		exporter.setExporterInput(exporterInput);
 		exporter.setExporterOutput(exporterOutput);
 		exporter.exportReport();
-		return pdfOutStream;
 	}
 
 	// generate Excel
 	private static File saveExcelReport(String filePath, String fileName, JasperPrint jasperPrint) throws IOException, JRException, ValidationException {
 		filePath = new ClassPathResource(File.separator).getPath() + filePath;
 		File file = CheckmarxUtil.newFileSafely(filePath + File.separator, fileName + EXCEL_SUFFIX);
-		try (ByteArrayOutputStream excelOutStream = getExcelOutputStream(jasperPrint);
-				OutputStream outputStream = new FileOutputStream(file);) {
-			excelOutStream.writeTo(outputStream);
+		try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));) {
+			writeExcel(jasperPrint, outputStream);
 			return file;
 		}
 	}
 
 	private static void exportExcelReport(HttpServletResponse response, JasperPrint jasperPrint) throws JRException, IOException {
-		try (OutputStream ouputStream = response.getOutputStream();
-				ByteArrayOutputStream xlsOutStream = getExcelOutputStream(jasperPrint);) {
-			byte bytes[] = xlsOutStream.toByteArray();
-			response.reset();
-			response.setContentType("application/vnd.ms-excel");
-			ouputStream.write(bytes, 0, bytes.length);
+		// header 需在取得 output stream 前設定
+		response.reset();
+		response.setContentType("application/vnd.ms-excel");
+		try (OutputStream ouputStream = response.getOutputStream();) {
+			writeExcel(jasperPrint, ouputStream);
 		}
 	}
 
-	private static ByteArrayOutputStream getExcelOutputStream(JasperPrint jasperPrint) throws IOException, JRException {
-		ByteArrayOutputStream xlsOutStream = new ByteArrayOutputStream();
+	private static void writeExcel(JasperPrint jasperPrint, OutputStream outputStream) throws JRException {
 		JRXlsExporter exporter = new JRXlsExporter();
 		SimpleExporterInput exporterInput = new SimpleExporterInput(jasperPrint);
-		SimpleOutputStreamExporterOutput exporterOutput = new SimpleOutputStreamExporterOutput(xlsOutStream);
+		SimpleOutputStreamExporterOutput exporterOutput = new SimpleOutputStreamExporterOutput(outputStream);
 		SimpleXlsReportConfiguration config = new SimpleXlsReportConfiguration();
 		config.setIgnoreCellBorder(true);
 		exporter.setExporterInput(exporterInput);
 		exporter.setExporterOutput(exporterOutput);
 		exporter.setConfiguration(config);
 		exporter.exportReport();
-		return xlsOutStream;
 	}
 
 	private static void removeBlankPage(List<JRPrintPage> pages) {
@@ -171,35 +219,76 @@ public class JasperReportUtil {
 		}
 	}
 
-	// 難字轉換
-	private static JasperPrint changeFontGenReport(JasperPrint jasperPrint) throws Exception {
+	/**
+	 * 難字轉換，將造字區 (0xE000 ~ 0xF842) 的字改用 EUDC 字型並過濾 XSS
+	 * <p>
+	 * 頁數達 {@value #PARALLEL_PAGE_THRESHOLD} 頁且未使用 virtualizer 時分頁平行處理
+	 *
+	 * @param jasperPrint 填值後的報表
+	 * @param virtualized 是否使用 virtualizer，換出的頁面不可跨執行緒存取
+	 * @return
+	 */
+	public static JasperPrint changeFontGenReport(JasperPrint jasperPrint, boolean virtualized) {
 		List<JRPrintPage> pages = jasperPrint.getPages();
-		// 把page內的每個element逐字去轉
-		for (JRPrintPage elements : pages) {
-			List<JRPrintElement> inPageElement = elements.getElements();
-			for (JRPrintElement wordElement : inPageElement) {
-				if (wordElement instanceof JRTemplatePrintText) {
-					JRTemplatePrintText jrtp = (JRTemplatePrintText) wordElement;
-					JRTemplateText template = (JRTemplateText) jrtp.getTemplate();
-					// 難字處理
-					StringBuilder sb = new StringBuilder();
-					char[] charArr = jrtp.getOriginalText().toCharArray();
-					for (char word : charArr) {
-						if (word >= 0xE000 && word <= 0xF842) {
-							sb.append("<style ").append("fontName=\"EUDC\">");
-							sb.append(word);
-							sb.append("</style>");
-							template.setMarkup("styled");
-						} else {
-							sb.append(word);
-						}
-					}
-
-					String cleanXssStr = CheckmarxUtil.cleanXss(sb.toString());
-					jrtp.setText(cleanXssStr);
+		if (!virtualized && pages.size() >= PARALLEL_PAGE_THRESHOLD) {
+			pages.parallelStream().forEach(JasperReportUtil::changeFont);
+		} else {
+			pages.forEach(JasperReportUtil::changeFont);
+		}
+		return jasperPrint;
+	}
+
+	// 把page內的每個element逐字去轉
+	private static void changeFont(JRPrintPage page) {
+		for (JRPrintElement wordElement : page.getElements()) {
+			if (wordElement instanceof JRTemplatePrintText) {
+				JRTemplatePrintText jrtp = (JRTemplatePrintText) wordElement;
+				String text = toEudcMarkup(jrtp.getOriginalText());
+				if (text != jrtp.getOriginalText()) {
+					((JRTemplateText) jrtp.getTemplate()).setMarkup("styled");
 				}
+				jrtp.setText(CheckmarxUtil.cleanXss(text));
 			}
 		}
-		return jasperPrint;
+	}
+
+	/**
+	 * 造字區的字以 EUDC 字型的 style 標籤包起來，相鄰的造字合併為同一段
+	 *
+	 * @param text 原始文字
+	 * @return 無造字時回傳原字串
+	 */
+	public static String toEudcMarkup(String text) {
+		if (text == null) {
+			return null;
+		}
+		int length = text.length();
+		int i = 0;
+		while (i < length && !isEudc(text.charAt(i))) {
+			i++;
+		}
+		if (i == length) {
+			return text;
+		}
+
+		StringBuilder sb = new StringBuilder(length + 32);
+		sb.append(text, 0, i);
+		while (i < length) {
+			int start = i;
+			while (i < length && isEudc(text.charAt(i))) {
+				i++;
+			}
+			sb.append(EUDC_STYLE_START).append(text, start, i).append(EUDC_STYLE_END);
+			start = i;
+			while (i < length && !isEudc(text.charAt(i))) {
+				i++;
+			}
+			sb.append(text, start, i);
+		}
+		return sb.toString();
+	}
+
+	private static boolean isEudc(char c) {
+		return c >= 0xE000 && c <= 0xF842;
 	}
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.frame.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.util.JRSaver;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jasper 報表樣板編譯快取
+ * <p>
+ * 以 (jrxmlPath, jrxmlName) 快取編譯後的 {@link JasperReport}，超過上限時淘汰最久未使用的樣板，
+ * jrxml 修改時間變更時才重新編譯。可設定 report.template.compiled-dir 保存 .jasper 檔，重啟後免重新編譯。
+ */
+@Slf4j
+@Component
+public class JasperTemplateCache {
+
+	private static final String JRXML_SUFFIX = ".jrxml";
+
+	private static final String JASPER_SUFFIX = ".jasper";
+
+	private static final String TEMPLATE_ROOT = "jasper";
+
+	/** 路徑每一層與樣板名稱允許的字元，不可只有 . */
+	private static final Pattern SEGMENT_PATTERN = Pattern.compile("(?!\\.+$)[A-Za-z0-9_.\\-]+");
+
+	private static volatile Cache<String, CompiledTemplate> templates = newCache(100);
+
+	private static final Map<String, Object> COMPILE_LOCKS = new ConcurrentHashMap<>();
+
+	private static String compiledDir;
+
+	@Value("${report.template.cache-size:100}")
+	public void setCacheSize(int cacheSize) {
+		JasperTemplateCache.templates = newCache(cacheSize);
+	}
+
+	@Value("${report.template.compiled-dir:}")
+	public void setCompiledDir(String compiledDir) {
+		JasperTemplateCache.compiledDir = compiledDir;
+	}
+
+	/**
+	 * 取得編譯後的報表樣板
+	 *
+	 * @param jrxmlPath jrxml文件路徑
+	 * @param jrxmlName jrxml名稱
+	 * @return 編譯後的報表
+	 * @throws IOException
+	 * @throws JRException
+	 */
+	public static JasperReport getReport(String jrxmlPath, String jrxmlName) throws IOException, JRException {
+		// 路徑同時用於 compiled-dir 寫檔，不允許 .. 或其他特殊字元
+		if (!isValidName(jrxmlPath, jrxmlName)) {
+			throw new IllegalArgumentException("Invalid report template: " + CheckmarxUtil.filterValidLog(jrxmlPath + "/" + jrxmlName));
+		}
+		Resource resource = new ClassPathResource(File.separator + jrxmlPath + File.separator + jrxmlName + JRXML_SUFFIX);
+		long lastModified = resource.lastModified();
+		String key = jrxmlPath + File.separator + jrxmlName;
+
+		CompiledTemplate template = templates.getIfPresent(key);
+		if (template != null && template.lastModified == lastModified) {
+			return template.report;
+		}
+		// 同一樣板僅編譯一次，其他執行緒等待結果
+		synchronized (COMPILE_LOCKS.computeIfAbsent(key, k -> new Object())) {
+			template = templates.getIfPresent(key);
+			if (template == null || template.lastModified != lastModified) {
+				template = new CompiledTemplate(load(resource, jrxmlPath, jrxmlName, lastModified), lastModified);
+				templates.put(key, template);
+			}
+		}
+		return template.report;
+	}
+
+	/**
+	 * 是否為 classpath 下 jasper 目錄內存在的樣板
+	 *
+	 * @param jrxmlPath jrxml文件路徑
+	 * @param jrxmlName jrxml名稱
+	 * @return
+	 */
+	public static boolean isTemplate(String jrxmlPath, String jrxmlName) {
+		if (!isValidName(jrxmlPath, jrxmlName)) {
+			return false;
+		}
+		String[] segments = StringUtils.split(jrxmlPath, "/\\");
+		if (!TEMPLATE_ROOT.equals(segments[0])) {
+			return false;
+		}
+		return new ClassPathResource(String.join("/", segments) + "/" + jrxmlName + JRXML_SUFFIX).exists();
+	}
+
+	private static boolean isValidName(String jrxmlPath, String jrxmlName) {
+		if (StringUtils.isAnyBlank(jrxmlPath, jrxmlName) || !SEGMENT_PATTERN.matcher(jrxmlName).matches()) {
+			return false;
+		}
+		String[] segments = StringUtils.split(jrxmlPath, "/\\");
+		if (segments.length == 0) {
+			return false;
+		}
+		for (String segment : segments) {
+			if (!SEGMENT_PATTERN.matcher(segment).matches()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 預先編譯 classpath 下 jasper 目錄內所有樣板
+	 *
+	 * @return 編譯成功的樣板數
+	 */
+	public static int warmUp() {
+		int count = 0;
+		try {
+			Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath*:" + TEMPLATE_ROOT + "/**/*" + JRXML_SUFFIX);
+			for (Resource resource : resources) {
+				String url = resource.getURL().toString();
+				int rootIndex = url.lastIndexOf("/" + TEMPLATE_ROOT + "/");
+				int nameIndex = url.lastIndexOf('/');
+				if (rootIndex < 0) {
+					continue;
+				}
+				String jrxmlPath = url.substring(rootIndex + 1, nameIndex).replace("/", File.separator);
+				String jrxmlName = StringUtils.removeEnd(url.substring(nameIndex + 1), JRXML_SUFFIX);
+				try {
+					getReport(jrxmlPath, jrxmlName);
+					count++;
+				} catch (IOException | JRException e) {
+					log.warn("[JasperTemplateCache] Warm up {} fail: {}", CheckmarxUtil.filterValidLog(jrxmlName), e.getMessage());
+				}
+			}
+		} catch (IOException e) {
+			log.warn("[JasperTemplateCache] Scan templates fail: {}", e.getMessage());
+		}
+		log.info("[JasperTemplateCache] Warm up {} templates", count);
+		return count;
+	}
+
+	private static JasperReport load(Resource resource, String jrxmlPath, String jrxmlName, long lastModified) throws IOException, JRException {
+		File compiledFile = null;
+		if (StringUtils.isNotBlank(compiledDir)) {
+			try {
+				compiledFile = CheckmarxUtil.newFileSafely(compiledDir + File.separator + jrxmlPath, jrxmlName + JASPER_SUFFIX);
+				if (compiledFile.isFile() && compiledFile.lastModified() >= lastModified) {
+					return (JasperReport) JRLoader.loadObject(compiledFile);
+				}
+			} catch (Exception e) {
+				log.warn("[JasperTemplateCache] Load compiled {} fail: {}", CheckmarxUtil.filterValidLog(jrxmlName), e.getMessage());
+				compiledFile = null;
+			}
+		}
+
+		long start = System.currentTimeMillis();
+		JasperReport report;
+		try (InputStream is = resource.getInputStream()) {
+			report = JasperCompileManager.compileReport(is);
+		}
+		log.info("[JasperTemplateCache] Compile {} in {} ms", CheckmarxUtil.filterValidLog(jrxmlName), System.currentTimeMillis() - start);
+
+		if (compiledFile != null) {
+			try {
+				JRSaver.saveObject(report, compiledFile);
+			} catch (JRException e) {
+				log.warn("[JasperTemplateCache] Save compiled {} fail: {}", CheckmarxUtil.filterValidLog(jrxmlName), e.getMessage());
+			}
+		}
+		return report;
+	}
+
+	private static Cache<String, CompiledTemplate> newCache(int cacheSize) {
+		return CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+	}
+
+	private static final class CompiledTemplate {
+
+		private final JasperReport report;
+
+		private final long lastModified;
+
+		private CompiledTemplate(JasperReport report, long lastModified) {
+			this.report = report;
+			this.lastModified = lastModified;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.frame.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 屬性路徑存取工具
+ * <p>
+ * 將 (class, 屬性路徑) 編譯為串接的 MethodHandle 並快取，例如 student.department.name，
+ * 欄位搜尋規則與 {@link ExportExcelUtils#getFieldValueByNameSequence} 相同 (含父類別)，中間節點為 null 時回傳 null。
+ *
+ * @since 1.0.0
+ */
+public class PropertyAccessorUtil {
+
+	private static final ClassValue<Map<String, Accessor>> ACCESSORS = new ClassValue<Map<String, Accessor>>() {
+
+		@Override
+		protected Map<String, Accessor> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private PropertyAccessorUtil() {
+	}
+
+	/**
+	 * 根據帶路徑或不帶路徑的屬性名獲取屬性值
+	 *
+	 * @param fieldNameSequence 帶路徑的屬性名或簡單屬性名
+	 * @param o 對象
+	 * @return 屬性值
+	 * @throws Exception 欄位不存在
+	 */
+	public static Object getValue(String fieldNameSequence, Object o) throws Exception {
+		return getAccessor(o.getClass(), fieldNameSequence).get(o);
+	}
+
+	/**
+	 * 取得已編譯的屬性存取器
+	 *
+	 * @param clazz 對象類別
+	 * @param fieldNameSequence 帶路徑的屬性名或簡單屬性名
+	 * @return 屬性存取器
+	 * @throws Exception 欄位不存在
+	 */
+	public static Accessor getAccessor(Class<?> clazz, String fieldNameSequence) throws Exception {
+		Map<String, Accessor> accessors = ACCESSORS.get(clazz);
+		Accessor accessor = accessors.get(fieldNameSequence);
+		if (accessor == null) {
+			accessor = compile(clazz, fieldNameSequence);
+			accessors.putIfAbsent(fieldNameSequence, accessor);
+		}
+		return accessor;
+	}
+
+	private static Accessor compile(Class<?> clazz, String fieldNameSequence) throws Exception {
+		String[] attributes = fieldNameSequence.split("\\.");
+		MethodHandle[] steps = new MethodHandle[attributes.length];
+		Class<?> type = clazz;
+		for (int i = 0; i < attributes.length; i++) {
+			Field field = ExportExcelUtils.getFieldByName(attributes[i], type);
+			if (field == null) {
+				if (i == 0) {
+					throw new Exception(clazz.getSimpleName() + "類不存在欄位名 " + attributes[i]);
+				}
+				// 宣告型別找不到欄位 (例如宣告為父類別或介面)，剩餘路徑依執行期類別解析
+				String remaining = String.join(".", Arrays.copyOfRange(attributes, i, attributes.length));
+				return new Accessor(Arrays.copyOf(steps, i), remaining);
+			}
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+			steps[i] = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+			type = field.getType();
+		}
+		return new Accessor(steps, null);
+	}
+
+	/**
+	 * 已編譯的屬性存取器，可跨執行緒共用
+	 */
+	public static final class Accessor {
+
+		private final MethodHandle[] steps;
+
+		private final String dynamicRemaining;
+
+		private Accessor(MethodHandle[] steps, String dynamicRemaining) {
+			this.steps = steps;
+			this.dynamicRemaining = dynamicRemaining;
+		}
+
+		public Object get(Object o) throws Exception {
+			Object value = o;
+			for (MethodHandle step : steps) {
+				if (value == null) {
+					return null;
+				}
+				try {
+					value = step.invokeExact(value);
+				} catch (Exception | Error e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new IllegalStateException(e);
+				}
+			}
+			if (dynamicRemaining != null && value != null) {
+				return getValue(dynamicRemaining, value);
+			}
+			return value;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.frame.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 固定容量的 List，已滿時新增會覆蓋最舊的一筆
+ * <p>
+ * 所有操作皆同步，可由多個執行緒新增；讀取前建議以 {@link #snapshot()} 複製。
+ *
+ * @param <E>
+ * @since 1.0.0
+ */
+public class RingBufferList<E> extends AbstractList<E> {
+
+	private final Object[] elements;
+
+	private int head;
+
+	private int size;
+
+	private long dropped;
+
+	public RingBufferList(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		this.elements = new Object[capacity];
+	}
+
+	@Override
+	public synchronized boolean add(E element) {
+		if (size == elements.length) {
+			elements[head] = element;
+			head = (head + 1) % elements.length;
+			dropped++;
+		} else {
+			elements[(head + size) % elements.length] = element;
+			size++;
+		}
+		modCount++;
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized E get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return (E) elements[(head + index) % elements.length];
+	}
+
+	@Override
+	public synchronized int size() {
+		return size;
+	}
+
+	@Override
+	public synchronized void clear() {
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = null;
+		}
+		head = 0;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public synchronized Object[] toArray() {
+		return snapshot().toArray();
+	}
+
+	@Override
+	public synchronized <T> T[] toArray(T[] a) {
+		return snapshot().toArray(a);
+	}
+
+	/**
+	 * 由舊到新的複本
+	 */
+	public synchronized List<E> snapshot() {
+		List<E> copy = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			copy.add(get(i));
+		}
+		return copy;
+	}
+
+	/**
+	 * 因容量已滿被覆蓋的筆數
+	 */
+	public synchronized long getDropped() {
+		return dropped;
+	}
+
+	public int getCapacity() {
+		return elements.length;
+	}
+}
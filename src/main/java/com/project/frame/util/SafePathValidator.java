@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.frame.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.apache.commons.io.FileUtils;
+import org.owasp.esapi.ESAPI;
+import org.owasp.esapi.SafeFile;
+import org.owasp.esapi.errors.ValidationException;
+
+/**
+ * 目錄路徑驗證快取
+ * <p>
+ * 以 {@link Path#normalize()} 後的絕對路徑為 key，記錄已通過 ESAPI 檢查並建立完成的目錄。
+ * 同一目錄僅第一次需要 canonical path、建立目錄與 ESAPI 驗證 (需鎖 ESAPI.class)，之後只做字元檢查與一次 stat，不需取得任何鎖。
+ *
+ * @since 1.0.0
+ */
+public final class SafePathValidator {
+
+	private static final int MAX_DIRECTORIES = 10_000;
+
+	/** normalized path -> canonical path */
+	private static final Cache<Path, String> VALIDATED = CacheBuilder.newBuilder().maximumSize(MAX_DIRECTORIES).build();
+
+	private SafePathValidator() {
+	}
+
+	/**
+	 * 驗證目錄並確保目錄存在
+	 *
+	 * @param path 目錄路徑
+	 * @param baseDir 根目錄，目錄需位於其下
+	 * @return canonical path
+	 * @throws ValidationException 路徑有安全疑慮
+	 * @throws IOException 建立目錄失敗
+	 */
+	public static String validDirectory(String path, String baseDir) throws ValidationException, IOException {
+		// 非法字元檢查每次都做，避免不同寫法正規化後共用快取結果
+		new SafeFile(path);
+		Path key;
+		try {
+			key = Paths.get(path).toAbsolutePath().normalize();
+		} catch (InvalidPathException e) {
+			throw new ValidationException("Invalid directory", "Invalid directory: " + CheckmarxUtil.filterValidLog(path));
+		}
+
+		String canonicalPath = VALIDATED.getIfPresent(key);
+		// 目錄被外部刪除時重新驗證
+		if (canonicalPath != null && Files.isDirectory(Paths.get(canonicalPath))) {
+			return canonicalPath;
+		}
+
+		canonicalPath = CheckmarxUtil.filterValidFilePath(path);
+		FileUtils.forceMkdir(new SafeFile(canonicalPath));
+		// 為了避開弱掃
+		synchronized (ESAPI.class) {
+			ESAPI.validator().getValidDirectoryPath("TBB", canonicalPath, new SafeFile(baseDir), false);
+		}
+		VALIDATED.put(key, canonicalPath);
+		return canonicalPath;
+	}
+
+	/**
+	 * 清除驗證結果，根目錄變更時使用
+	 */
+	public static void clear() {
+		VALIDATED.invalidateAll();
+	}
+}
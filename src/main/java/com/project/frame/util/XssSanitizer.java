@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.frame.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * XSS 字串過濾
+ * <p>
+ * 先以單次掃描比對關鍵字 (script、src、eval(、expression(、onload，不分大小寫)，所有過濾規則都必須包含其中之一才可能命中，
+ * 未出現時直接回傳原字串，不建立任何物件；出現時才依序套用過濾規則，結果與逐條 regex 取代完全相同。
+ *
+ * @since 1.0.0
+ */
+public final class XssSanitizer {
+
+	// Avoid anything between script tags
+	private static final Pattern SCRIPT_BLOCK_PATTERN = Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE);
+
+	// Avoid anything in a src='...' type of expression
+	private static final Pattern SRC_SINGLE_QUOTE_PATTERN = Pattern.compile("src[\r\n]=[\r\n]\\\'(.*?)\\\'", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+	private static final Pattern SRC_DOUBLE_QUOTE_PATTERN = Pattern.compile("src[\r\n]*=[\r\n]*\\\"(.*?)\\\"", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+	// Remove any lonesome </script> tag
+	private static final Pattern SCRIPT_END_TAG_PATTERN = Pattern.compile("</script>", Pattern.CASE_INSENSITIVE);
+
+	// Remove any lonesome <script ...> tag
+	private static final Pattern SCRIPT_START_TAG_PATTERN = Pattern.compile("<script(.*?)>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+	// Avoid eval(...) expressions
+	private static final Pattern EVAL_PATTERN = Pattern.compile("eval\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+	// Avoid expression(...) expressions
+	private static final Pattern EXPRESSION_PATTERN = Pattern.compile("expression\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+	// Avoid javascript:... expressions
+	private static final Pattern JAVASCRIPT_PATTERN = Pattern.compile("javascript:", Pattern.CASE_INSENSITIVE);
+
+	// Avoid vbscript:... expressions
+	private static final Pattern VBSCRIPT_PATTERN = Pattern.compile("vbscript:", Pattern.CASE_INSENSITIVE);
+
+	// Avoid onload= expressions
+	private static final Pattern ONLOAD_PATTERN = Pattern.compile("onload(.*?)=", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+	/** 依序套用，順序影響結果 (前一條移除後可能組出下一條的字) */
+	private static final Pattern[] PATTERNS = { SCRIPT_BLOCK_PATTERN, SRC_SINGLE_QUOTE_PATTERN, SRC_DOUBLE_QUOTE_PATTERN, SCRIPT_END_TAG_PATTERN,
+			SCRIPT_START_TAG_PATTERN, EVAL_PATTERN, EXPRESSION_PATTERN, JAVASCRIPT_PATTERN, VBSCRIPT_PATTERN, ONLOAD_PATTERN };
+
+	private XssSanitizer() {
+	}
+
+	/**
+	 * 過濾 XSS 字串
+	 *
+	 * @param value 原始字串
+	 * @return 未命中任何規則時回傳原字串
+	 */
+	public static String clean(String value) {
+		if (value == null || !containsKeyword(value)) {
+			return value;
+		}
+		for (Pattern pattern : PATTERNS) {
+			value = pattern.matcher(value).replaceAll("");
+		}
+		return value;
+	}
+
+	/**
+	 * 是否含有任一過濾規則的關鍵字，regex 的 CASE_INSENSITIVE 僅比對 ASCII，此處同樣只轉換 ASCII 大小寫
+	 */
+	static boolean containsKeyword(String value) {
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			switch (value.charAt(i) | 0x20) {
+				case 's':
+					if (matchesAt(value, i, "script") || matchesAt(value, i, "src")) {
+						return true;
+					}
+					break;
+				case 'e':
+					if (matchesAt(value, i, "eval(") || matchesAt(value, i, "expression(")) {
+						return true;
+					}
+					break;
+				case 'o':
+					if (matchesAt(value, i, "onload")) {
+						return true;
+					}
+					break;
+				default:
+					break;
+			}
+		}
+		return false;
+	}
+
+	private static boolean matchesAt(String value, int offset, String keyword) {
+		int length = keyword.length();
+		if (offset + length > value.length()) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(offset + i);
+			if (c >= 'A' && c <= 'Z') {
+				c += 'a' - 'A';
+			}
+			if (c != keyword.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
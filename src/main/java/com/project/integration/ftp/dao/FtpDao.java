@@ -4,9 +4,14 @@
  */
 package com.project.integration.ftp.dao;
 
+import com.project.integration.ftp.model.FtpFileEntry;
+import com.project.integration.ftp.model.FtpMirrorResult;
 import java.io.IOException;
-import org.springframework.core.io.InputStreamResource;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * @author Parker Huang
@@ -39,6 +44,16 @@ public interface FtpDao {
 	 */
 	boolean uploadFile(String directory, String filename, byte[] content) throws IOException;
 
+	/**
+	 * 批次上傳檔案，共用同一個連線
+	 *
+	 * @param directory
+	 * @param files 檔名 - 內容
+	 * @return 成功上傳的檔案數
+	 * @throws IOException
+	 */
+	int uploadFiles(String directory, Map<String, byte[]> files) throws IOException;
+
 	/**
 	 * 刪除檔案
 	 *
@@ -50,7 +65,17 @@ public interface FtpDao {
 	boolean deleteFile(String directory, String filename) throws IOException;
 
 	/**
-	 * 刪除目錄
+	 * 批次刪除檔案，共用同一個連線
+	 *
+	 * @param directory
+	 * @param fileNames
+	 * @return 成功刪除的檔案數
+	 * @throws IOException
+	 */
+	int deleteFiles(String directory, Collection<String> fileNames) throws IOException;
+
+	/**
+	 * 刪除目錄，子檔案與子目錄以多個連線平行刪除
 	 *
 	 * @param directory
 	 * @return
@@ -58,13 +83,47 @@ public interface FtpDao {
 	 */
 	boolean removeDirectory(String directory) throws IOException;
 
+	/**
+	 * 平行列出目錄下所有檔案與子目錄
+	 *
+	 * @param directory
+	 * @return
+	 * @throws IOException
+	 */
+	List<FtpFileEntry> listTree(String directory) throws IOException;
+
+	/**
+	 * 將遠端目錄同步下載至本機，大小與修改時間未變更的檔案略過
+	 *
+	 * @param directory 遠端目錄
+	 * @param localDirectory 本機目錄
+	 * @return
+	 * @throws IOException
+	 */
+	FtpMirrorResult mirrorDirectory(String directory, String localDirectory) throws IOException;
+
 	/**
 	 * 下載檔案
+	 * <p>
+	 * 寫 response body 時才借出連線，寫完或中斷時歸還
 	 *
 	 * @param directory
 	 * @param fileName 檔案名稱
-	 * @return
+	 * @return 200，檔案不存在時 404
+	 * @throws IOException
+	 */
+	ResponseEntity<StreamingResponseBody> downloadFile(String directory, String fileName) throws IOException;
+
+	/**
+	 * 串流下載檔案，支援 HTTP Range (以 FTP REST 指定起始位置)
+	 * <p>
+	 * 寫 response body 時才借出連線並開始傳輸，寫完或中斷時歸還，檔案內容不經過磁碟或完整暫存於記憶體
+	 *
+	 * @param directory
+	 * @param fileName 檔案名稱
+	 * @param range request 的 Range header，可為 null
+	 * @return 200 / 206，檔案不存在時 404，範圍無效時 416
 	 * @throws IOException
 	 */
-	ResponseEntity<InputStreamResource> downloadFile(String directory, String fileName) throws IOException;
+	ResponseEntity<StreamingResponseBody> streamFile(String directory, String fileName, String range) throws IOException;
 }
@@ -4,26 +4,37 @@
  */
 package com.project.integration.ftp.dao.impl;
 
+import com.project.frame.util.CheckmarxUtil;
 import com.project.integration.ftp.dao.FtpDao;
+import com.project.integration.ftp.model.FtpFileEntry;
+import com.project.integration.ftp.model.FtpMirrorResult;
+import com.project.integration.ftp.pool.FtpClientPool;
+import com.project.integration.ftp.pool.FtpSession;
+import com.project.integration.ftp.pool.FtpSessionInputStream;
+import com.project.integration.ftp.pool.FtpTreeWalker;
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.binary.StringUtils;
-import org.apache.commons.net.PrintCommandListener;
-import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
-import org.apache.commons.net.ftp.FTPFile;
-import org.apache.commons.net.ftp.FTPReply;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Repository;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * @author Parker Huang
@@ -33,14 +44,11 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class FtpDaoImpl implements FtpDao {
 
-	@Value("${ftp.host:}")
-	private String host;
+	@Autowired
+	private FtpClientPool ftpClientPool;
 
-	@Value("${ftp.user:}")
-	private String user;
-
-	@Value("${ftp.password:}")
-	private String password;
+	@Autowired
+	private FtpTreeWalker ftpTreeWalker;
 
 	@Value("${ftp.path:}")
 	private String path;
@@ -60,87 +68,71 @@ public class FtpDaoImpl implements FtpDao {
 
 	@Override
 	public boolean uploadFile(String directory, String fileName, byte[] content) throws IOException {
-		FTPClient client = getConnection();
-		try {
-			String transferDirectory = transferEncoding(directory);
-			if (!client.changeWorkingDirectory(transferDirectory)) {
-				client.makeDirectory(transferDirectory);
-				client.changeWorkingDirectory(transferDirectory);
-			}
+		return ftpClientPool.execute(client -> {
+			changeOrMakeDirectory(client, transferEncoding(directory));
 			return client.storeFile(transferEncoding(fileName), new ByteArrayInputStream(content));
-		} finally {
-			disconnect(client);
-		}
+		});
+	}
+
+	@Override
+	public int uploadFiles(String directory, Map<String, byte[]> files) throws IOException {
+		return ftpClientPool.execute(client -> {
+			changeOrMakeDirectory(client, transferEncoding(directory));
+			int count = 0;
+			for (Map.Entry<String, byte[]> file : files.entrySet()) {
+				if (client.storeFile(transferEncoding(file.getKey()), new ByteArrayInputStream(file.getValue()))) {
+					count++;
+				} else {
+					log.warn("[FtpDao] Upload {} fail: {}", CheckmarxUtil.filterValidLog(file.getKey()), client.getReplyCode());
+				}
+			}
+			return count;
+		});
 	}
 
 	@Override
 	public boolean deleteFile(String directory, String fileName) throws IOException {
-		FTPClient client = getConnection();
-		try {
+		return ftpClientPool.execute(client -> {
 			client.changeWorkingDirectory(transferEncoding(directory));
 			return client.deleteFile(transferEncoding(fileName));
-		} finally {
-			disconnect(client);
-		}
+		});
 	}
 
 	@Override
-	public boolean removeDirectory(String directory) throws IOException {
-		FTPClient client = getConnection();
-		try {
-			return removeDirectory(client, transferEncoding(directory));
-		} finally {
-			disconnect(client);
-		}
-	}
-
-	private boolean removeDirectory(FTPClient ftpClient, String directory) throws IOException {
-		FTPFile[] files = ftpClient.mlistDir(directory);
-		if (files != null && files.length > 0) {
-			for (FTPFile file : files) {
-				String fileName = file.getName();
-				if (fileName.equals(".") || fileName.equals("..")) {
-					// Skip parent directory and the directory itself.
-					continue;
-				}
-				String filePath = directory + File.separator + fileName;
-
-				if (file.isDirectory()) {
-					// remove the sub directory
-					removeDirectory(ftpClient, filePath);
+	public int deleteFiles(String directory, Collection<String> fileNames) throws IOException {
+		return ftpClientPool.execute(client -> {
+			client.changeWorkingDirectory(transferEncoding(directory));
+			int count = 0;
+			for (String fileName : fileNames) {
+				if (client.deleteFile(transferEncoding(fileName))) {
+					count++;
 				} else {
-					// Delete the file.
-					if (!ftpClient.deleteFile(filePath)) {
-						throw new IOException("Delete child file fail: " + filePath);
-					}
+					log.warn("[FtpDao] Delete {} fail: {}", CheckmarxUtil.filterValidLog(fileName), client.getReplyCode());
 				}
 			}
-		}
-		return ftpClient.removeDirectory(directory);
+			return count;
+		});
 	}
 
-	private FTPClient getConnection() throws IOException {
-		FTPClient client = new FTPClient();
-		if (log.isDebugEnabled()) {
-			client.addProtocolCommandListener(new PrintCommandListener(new PrintWriter(System.out), true));
-		}
-		client.connect(host);
-		int reply = client.getReplyCode();
-		if (!FTPReply.isPositiveCompletion(reply)) {
-			client.disconnect();
-			throw new IOException("Fail to connect server");
-		}
+	@Override
+	public boolean removeDirectory(String directory) throws IOException {
+		return ftpTreeWalker.remove(transferEncoding(directory));
+	}
+
+	@Override
+	public List<FtpFileEntry> listTree(String directory) throws IOException {
+		return ftpTreeWalker.list(transferEncoding(directory));
+	}
 
-		client.login(user, password);
-		client.enterLocalPassiveMode();
-		client.setFileType(FTP.BINARY_FILE_TYPE);
-		return client;
+	@Override
+	public FtpMirrorResult mirrorDirectory(String directory, String localDirectory) throws IOException {
+		return ftpTreeWalker.mirror(transferEncoding(directory), localDirectory);
 	}
 
-	private void disconnect(FTPClient client) throws IOException {
-		if (client.isConnected()) {
-			client.logout();
-			client.disconnect();
+	private void changeOrMakeDirectory(FTPClient client, String directory) throws IOException {
+		if (!client.changeWorkingDirectory(directory)) {
+			client.makeDirectory(directory);
+			client.changeWorkingDirectory(directory);
 		}
 	}
 
@@ -149,27 +141,98 @@ public class FtpDaoImpl implements FtpDao {
 	}
 
 	@Override
-	public ResponseEntity<InputStreamResource> downloadFile(String directory, String fileName) throws IOException {
-		// 建立 FTPClient
-		FTPClient client = getConnection();
-		try {
-			// 設定檔案下載的相對路徑
-			String remoteFilePath = directory + File.separator + fileName;
+	public ResponseEntity<StreamingResponseBody> downloadFile(String directory, String fileName) throws IOException {
+		// 設定檔案下載的相對路徑
+		String remoteFilePath = transferEncoding(directory + File.separator + fileName);
+		String size = ftpClientPool.execute(client -> client.getSize(remoteFilePath));
+		if (size == null) {
+			return ResponseEntity.notFound().build();
+		}
 
-			// 從 FTP 伺服器下載檔案
-			InputStream inputStream = client.retrieveFileStream(remoteFilePath);
+		// 寫 response body 時才借出連線，未寫出 body 時不佔用連線
+		StreamingResponseBody body = outputStream -> transfer(remoteFilePath, 0, -1, true, outputStream);
 
-			// 建立 InputStreamResource
-			InputStreamResource resource = new InputStreamResource(inputStream);
+		// 設定檔案下載的 HTTP 標頭
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentDisposition(ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build());
+		headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+		headers.setContentLength(Long.parseLong(size.trim()));
 
-			// 設定檔案下載的 HTTP 標頭
-			HttpHeaders headers = new HttpHeaders();
-			headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
-			headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+		return ResponseEntity.ok().headers(headers).body(body);
+	}
 
-			return ResponseEntity.ok().headers(headers).body(resource);
-		} finally {
-			disconnect(client);
+	@Override
+	public ResponseEntity<StreamingResponseBody> streamFile(String directory, String fileName, String range) throws IOException {
+		String remoteFilePath = transferEncoding(directory + File.separator + fileName);
+		String size = ftpClientPool.execute(client -> client.getSize(remoteFilePath));
+		if (size == null) {
+			return ResponseEntity.notFound().build();
+		}
+		long length = Long.parseLong(size.trim());
+
+		long start = 0;
+		long end = length - 1;
+		List<HttpRange> ranges;
+		try {
+			ranges = HttpRange.parseRanges(range);
+			// 多段範圍不支援，回傳完整檔案
+			if (ranges.size() == 1) {
+				start = ranges.get(0).getRangeStart(length);
+				end = ranges.get(0).getRangeEnd(length);
+				if (start >= length || end < start) {
+					throw new IllegalArgumentException("Range not satisfiable: " + range);
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).header(HttpHeaders.CONTENT_RANGE, "bytes */" + length).build();
+		}
+		boolean partial = ranges.size() == 1;
+
+		long offset = start;
+		long count = end - start + 1;
+		boolean endsAtEof = end == length - 1;
+		StreamingResponseBody body = outputStream -> transfer(remoteFilePath, offset, count, endsAtEof, outputStream);
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentDisposition(ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build());
+		headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+		headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+		headers.setContentLength(count);
+		if (partial) {
+			headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+			return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).body(body);
+		}
+		return ResponseEntity.ok().headers(headers).body(body);
+	}
+
+	/**
+	 * 借出連線，自 offset 起讀取 count 位元組寫入 outputStream，結束後歸還連線
+	 *
+	 * @param count -1 表示讀到檔尾
+	 * @param endsAtEof 讀完 count 後是否即為檔尾
+	 */
+	private void transfer(String remoteFilePath, long offset, long count, boolean endsAtEof, OutputStream outputStream) throws IOException {
+		FtpSession session = ftpClientPool.borrowSession();
+		InputStream inputStream;
+		try {
+			FTPClient client = session.getClient();
+			client.setRestartOffset(offset);
+			inputStream = client.retrieveFileStream(remoteFilePath);
+			if (inputStream == null) {
+				throw new FileNotFoundException("Retrieve file fail: " + client.getReplyCode());
+			}
+		} catch (FileNotFoundException e) {
+			// 檔案不存在不影響連線
+			session.close();
+			throw e;
+		} catch (IOException | RuntimeException e) {
+			session.invalidate();
+			session.close();
+			throw e;
+		}
+		// close 時完成傳輸並歸還連線，寫出失敗時亦同
+		try (InputStream in = new FtpSessionInputStream(inputStream, session, count, endsAtEof)) {
+			in.transferTo(outputStream);
 		}
 	}
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.ftp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+/**
+ * FTP 目錄樹中的檔案或目錄
+ */
+@Data
+public class FtpFileEntry {
+
+	/** 完整路徑 */
+	private String path;
+
+	/** 相對於起始目錄的路徑 */
+	private String relativePath;
+
+	private boolean directory;
+
+	private long size;
+
+	/** 最後修改時間 (epoch millis)，伺服器未提供時為 -1 */
+	private long timestamp;
+
+	/** 起始目錄下第幾層，1 起算 */
+	private int depth;
+
+	/** 傳輸編碼後的完整路徑，供後續 FTP 指令使用 */
+	@JsonIgnore
+	private String remotePath;
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.ftp.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Data;
+
+/**
+ * FTP 目錄同步結果
+ */
+@Data
+public class FtpMirrorResult {
+
+	private int files;
+
+	private final AtomicInteger downloaded = new AtomicInteger();
+
+	private final AtomicInteger skipped = new AtomicInteger();
+
+	private final AtomicLong bytes = new AtomicLong();
+
+	/** 下載失敗的相對路徑 */
+	private final List<String> failed = new CopyOnWriteArrayList<>();
+
+	private long elapsedMillis;
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.ftp.pool;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.net.PrintCommandListener;
+import org.apache.commons.net.ftp.FTP;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPReply;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * FTP 連線池
+ * <p>
+ * 借出時以 NOOP 確認連線可用，歸還時切回登入時的工作目錄，失敗則關閉連線。
+ * 有 MeterRegistry 時註冊 ftp.pool.* 指標。
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class FtpClientPool {
+
+	@Value("${ftp.host:}")
+	private String host;
+
+	@Value("${ftp.port:21}")
+	private int port;
+
+	@Value("${ftp.user:}")
+	private String user;
+
+	@Value("${ftp.password:}")
+	private String password;
+
+	@Value("${ftp.connect-timeout-millis:10000}")
+	private int connectTimeoutMillis;
+
+	@Value("${ftp.pool.max-total:8}")
+	private int maxTotal;
+
+	@Value("${ftp.pool.max-idle:8}")
+	private int maxIdle;
+
+	@Value("${ftp.pool.min-idle:0}")
+	private int minIdle;
+
+	@Value("${ftp.pool.max-wait-millis:30000}")
+	private long maxWaitMillis;
+
+	@Value("${ftp.pool.eviction-interval-millis:60000}")
+	private long evictionIntervalMillis;
+
+	@Value("${ftp.pool.min-evictable-idle-millis:300000}")
+	private long minEvictableIdleMillis;
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	private GenericObjectPool<FtpSession> pool;
+
+	public FtpClientPool(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@PostConstruct
+	public void init() {
+		GenericObjectPoolConfig<FtpSession> config = new GenericObjectPoolConfig<>();
+		config.setMaxTotal(maxTotal);
+		config.setMaxIdle(maxIdle);
+		config.setMinIdle(minIdle);
+		config.setMaxWait(Duration.ofMillis(maxWaitMillis));
+		config.setTestOnBorrow(true);
+		config.setTestWhileIdle(true);
+		config.setMinEvictableIdleTime(Duration.ofMillis(minEvictableIdleMillis));
+		// 未設定主機時不啟動背景檢查，避免持續建立連線失敗
+		if (StringUtils.isNotBlank(host)) {
+			config.setTimeBetweenEvictionRuns(Duration.ofMillis(evictionIntervalMillis));
+		}
+		config.setJmxEnabled(false);
+		pool = new GenericObjectPool<>(new FtpSessionFactory(), config);
+		meterRegistry.ifAvailable(this::bindMetrics);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		pool.close();
+	}
+
+	/**
+	 * 借出連線，使用完畢需 close
+	 *
+	 * @return
+	 * @throws IOException 無法建立連線或等待逾時
+	 */
+	public FtpSession borrowSession() throws IOException {
+		try {
+			FtpSession session = pool.borrowObject();
+			session.onBorrow();
+			return session;
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException("Borrow ftp session fail: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 借出連線執行動作後歸還，發生 IOException 時關閉連線
+	 *
+	 * @param callback
+	 * @return
+	 * @throws IOException
+	 */
+	public <T> T execute(FtpCallback<T> callback) throws IOException {
+		try (FtpSession session = borrowSession()) {
+			try {
+				return callback.doInFtp(session.getClient());
+			} catch (IOException | RuntimeException e) {
+				session.invalidate();
+				throw e;
+			}
+		}
+	}
+
+	void release(FtpSession session) {
+		if (!session.onRelease()) {
+			return;
+		}
+		if (session.isBroken()) {
+			try {
+				pool.invalidateObject(session);
+			} catch (Exception e) {
+				log.warn("[FtpClientPool] Invalidate session fail: {}", e.getMessage());
+			}
+		} else {
+			pool.returnObject(session);
+		}
+	}
+
+	public int getNumActive() {
+		return pool.getNumActive();
+	}
+
+	public int getNumIdle() {
+		return pool.getNumIdle();
+	}
+
+	private void bindMetrics(MeterRegistry registry) {
+		Gauge.builder("ftp.pool.active", pool, GenericObjectPool::getNumActive).register(registry);
+		Gauge.builder("ftp.pool.idle", pool, GenericObjectPool::getNumIdle).register(registry);
+		Gauge.builder("ftp.pool.waiters", pool, GenericObjectPool::getNumWaiters).register(registry);
+		Gauge.builder("ftp.pool.borrow.wait.mean", pool, GenericObjectPool::getMeanBorrowWaitTimeMillis).baseUnit("milliseconds").register(registry);
+		FunctionCounter.builder("ftp.pool.created", pool, GenericObjectPool::getCreatedCount).register(registry);
+		FunctionCounter.builder("ftp.pool.destroyed", pool, GenericObjectPool::getDestroyedCount).register(registry);
+		FunctionCounter.builder("ftp.pool.borrowed", pool, GenericObjectPool::getBorrowedCount).register(registry);
+	}
+
+	/**
+	 * 使用借出連線的動作
+	 */
+	@FunctionalInterface
+	public interface FtpCallback<T> {
+
+		T doInFtp(FTPClient client) throws IOException;
+	}
+
+	private class FtpSessionFactory extends BasePooledObjectFactory<FtpSession> {
+
+		@Override
+		public FtpSession create() throws Exception {
+			FTPClient client = new FTPClient();
+			if (log.isDebugEnabled()) {
+				client.addProtocolCommandListener(new PrintCommandListener(new PrintWriter(System.out), true));
+			}
+			client.setConnectTimeout(connectTimeoutMillis);
+			client.connect(host, port);
+			int reply = client.getReplyCode();
+			if (!FTPReply.isPositiveCompletion(reply)) {
+				client.disconnect();
+				throw new IOException("Fail to connect server");
+			}
+			if (!client.login(user, password)) {
+				client.disconnect();
+				throw new IOException("Fail to login server");
+			}
+			client.enterLocalPassiveMode();
+			client.setFileType(FTP.BINARY_FILE_TYPE);
+			return new FtpSession(client, client.printWorkingDirectory(), FtpClientPool.this);
+		}
+
+		@Override
+		public PooledObject<FtpSession> wrap(FtpSession session) {
+			return new DefaultPooledObject<>(session);
+		}
+
+		@Override
+		public boolean validateObject(PooledObject<FtpSession> p) {
+			FTPClient client = p.getObject().getClient();
+			try {
+				return client.isConnected() && client.sendNoOp();
+			} catch (IOException e) {
+				return false;
+			}
+		}
+
+		@Override
+		public void passivateObject(PooledObject<FtpSession> p) throws Exception {
+			FtpSession session = p.getObject();
+			if (session.getHomeDirectory() != null && !session.getClient().changeWorkingDirectory(session.getHomeDirectory())) {
+				throw new IOException("Reset working directory fail");
+			}
+		}
+
+		@Override
+		public void destroyObject(PooledObject<FtpSession> p) {
+			FTPClient client = p.getObject().getClient();
+			if (client.isConnected()) {
+				try {
+					client.logout();
+				} catch (IOException e) {
+					log.debug("[FtpClientPool] Logout fail: {}", e.getMessage());
+				}
+				try {
+					client.disconnect();
+				} catch (IOException e) {
+					log.debug("[FtpClientPool] Disconnect fail: {}", e.getMessage());
+				}
+			}
+		}
+	}
+}
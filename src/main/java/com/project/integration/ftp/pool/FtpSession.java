@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.ftp.pool;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.commons.net.ftp.FTPClient;
+
+/**
+ * 從 {@link FtpClientPool} 借出的 FTP 連線，close 時歸還連線池
+ * <p>
+ * 連線狀態不明 (例如傳輸中斷) 時呼叫 {@link #invalidate()}，close 時會關閉連線而非歸還。
+ *
+ * @since 1.0.0
+ */
+public class FtpSession implements Closeable {
+
+	private final FTPClient client;
+
+	private final String homeDirectory;
+
+	private final FtpClientPool pool;
+
+	private volatile boolean broken;
+
+	private final AtomicBoolean borrowed = new AtomicBoolean();
+
+	FtpSession(FTPClient client, String homeDirectory, FtpClientPool pool) {
+		this.client = client;
+		this.homeDirectory = homeDirectory;
+		this.pool = pool;
+	}
+
+	public FTPClient getClient() {
+		return client;
+	}
+
+	/**
+	 * 登入後的工作目錄，歸還時切回此目錄
+	 */
+	public String getHomeDirectory() {
+		return homeDirectory;
+	}
+
+	/**
+	 * 標記連線不可再使用
+	 */
+	public void invalidate() {
+		broken = true;
+	}
+
+	boolean isBroken() {
+		return broken;
+	}
+
+	void onBorrow() {
+		broken = false;
+		borrowed.set(true);
+	}
+
+	/**
+	 * @return 是否為第一次歸還，重複 close 時回傳 false
+	 */
+	boolean onRelease() {
+		return borrowed.compareAndSet(true, false);
+	}
+
+	@Override
+	public void close() {
+		pool.release(this);
+	}
+}
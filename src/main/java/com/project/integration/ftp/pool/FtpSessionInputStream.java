@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.ftp.pool;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * FTP 資料連線的 InputStream，close 時完成傳輸指令並歸還連線
+ * <p>
+ * 讀到檔案結尾才呼叫 completePendingCommand 後歸還連線池；提前關閉 (例如 Range 未到檔尾、用戶端中斷) 時伺服器會回覆傳輸中止，
+ * 連線狀態不明，直接關閉連線。
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+public class FtpSessionInputStream extends FilterInputStream {
+
+	private final FtpSession session;
+
+	private final boolean endsAtEof;
+
+	private long remaining;
+
+	private boolean eof;
+
+	private boolean closed;
+
+	/**
+	 * @param in retrieveFileStream 取得的資料串流
+	 * @param session 借出的連線
+	 * @param length 最多讀取的位元組數，-1 表示讀到檔尾
+	 * @param endsAtEof 讀完 length 後是否即為檔尾
+	 */
+	public FtpSessionInputStream(InputStream in, FtpSession session, long length, boolean endsAtEof) {
+		super(in);
+		this.session = session;
+		this.remaining = length;
+		this.endsAtEof = endsAtEof;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (remaining == 0) {
+			return -1;
+		}
+		int b = super.read();
+		if (b < 0) {
+			eof = true;
+		} else if (remaining > 0) {
+			remaining--;
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (remaining == 0) {
+			return len == 0 ? 0 : -1;
+		}
+		if (remaining > 0) {
+			len = (int) Math.min(len, remaining);
+		}
+		int n = super.read(b, off, len);
+		if (n < 0) {
+			eof = true;
+		} else if (remaining > 0) {
+			remaining -= n;
+		}
+		return n;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		if (remaining >= 0) {
+			n = Math.min(n, remaining);
+		}
+		long skipped = super.skip(n);
+		if (remaining > 0) {
+			remaining -= skipped;
+		}
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		int available = super.available();
+		return remaining >= 0 ? (int) Math.min(available, remaining) : available;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		boolean completed = eof || (remaining == 0 && endsAtEof);
+		try {
+			super.close();
+			if (!completed || !session.getClient().completePendingCommand()) {
+				session.invalidate();
+			}
+		} catch (IOException e) {
+			log.debug("[FtpSessionInputStream] Complete transfer fail: {}", e.getMessage());
+			session.invalidate();
+		} finally {
+			session.close();
+		}
+	}
+}
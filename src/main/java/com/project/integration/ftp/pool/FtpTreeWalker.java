@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.ftp.pool;
+
+import com.project.frame.util.CheckmarxUtil;
+import com.project.integration.ftp.model.FtpFileEntry;
+import com.project.integration.ftp.model.FtpMirrorResult;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * FTP 目錄樹平行處理
+ * <p>
+ * 逐層列出目錄，同一層的目錄、刪除與下載分給多個連線池連線同時執行，每個 worker 只借一次連線。
+ * 每次呼叫同時使用的連線數不超過 ftp.walk.parallelism，worker 執行於共用的 ftpExecutor，目錄深度不超過 ftp.walk.max-depth。
+ * 路徑皆為傳輸編碼 (ISO-8859-1) 後的字串。
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class FtpTreeWalker {
+
+	private static final String SEPARATOR = "/";
+
+	private static final String PART_SUFFIX = ".part";
+
+	@Autowired
+	private FtpClientPool ftpClientPool;
+
+	@Autowired
+	@Qualifier("ftpExecutor")
+	private Executor ftpExecutor;
+
+	@Value("${ftp.walk.parallelism:4}")
+	private int parallelism;
+
+	@Value("${ftp.walk.max-depth:32}")
+	private int maxDepth;
+
+	/**
+	 * 列出目錄下所有檔案與子目錄
+	 *
+	 * @param directory 起始目錄
+	 * @return 依層級排列，同層內順序不固定
+	 * @throws IOException 列目錄失敗或超過深度上限
+	 */
+	public List<FtpFileEntry> list(String directory) throws IOException {
+		List<FtpFileEntry> entries = new ArrayList<>();
+		Queue<FtpFileEntry> level = new ConcurrentLinkedQueue<>();
+		List<FtpFileEntry> current = List.of(rootEntry(directory));
+		for (int depth = 1; !current.isEmpty(); depth++) {
+			if (depth > maxDepth) {
+				throw new IOException("Directory depth exceeds " + maxDepth + ": " + CheckmarxUtil.filterValidLog(decode(directory)));
+			}
+			int childDepth = depth;
+			forEach(current, (client, parent) -> {
+				FTPFile[] files = client.mlistDir(parent.getRemotePath());
+				if (files == null) {
+					return;
+				}
+				for (FTPFile file : files) {
+					String name = file.getName();
+					if (name.equals(".") || name.equals("..")) {
+						continue;
+					}
+					level.add(toEntry(parent, file, childDepth));
+				}
+			});
+			entries.addAll(level);
+			current = level.stream().filter(FtpFileEntry::isDirectory).collect(Collectors.toList());
+			level.clear();
+		}
+		return entries;
+	}
+
+	/**
+	 * 刪除目錄及其下所有檔案，檔案平行刪除後由深至淺刪除子目錄
+	 *
+	 * @param directory
+	 * @return 起始目錄是否刪除成功
+	 * @throws IOException 子檔案或子目錄刪除失敗
+	 */
+	public boolean remove(String directory) throws IOException {
+		List<FtpFileEntry> entries = list(directory);
+		List<FtpFileEntry> files = entries.stream().filter(e -> !e.isDirectory()).collect(Collectors.toList());
+		forEach(files, (client, file) -> {
+			if (!client.deleteFile(file.getRemotePath())) {
+				throw new IOException("Delete child file fail: " + file.getPath());
+			}
+		});
+
+		TreeMap<Integer, List<FtpFileEntry>> directories = entries.stream()
+				.filter(FtpFileEntry::isDirectory)
+				.collect(Collectors.groupingBy(FtpFileEntry::getDepth, TreeMap::new, Collectors.toList()));
+		for (List<FtpFileEntry> level : directories.descendingMap().values()) {
+			forEach(level, (client, dir) -> {
+				if (!client.removeDirectory(dir.getRemotePath())) {
+					throw new IOException("Remove child directory fail: " + dir.getPath());
+				}
+			});
+		}
+		return ftpClientPool.execute(client -> client.removeDirectory(directory));
+	}
+
+	/**
+	 * 將遠端目錄同步至本機，大小與修改時間皆相同的檔案略過
+	 * <p>
+	 * 先下載為 .part 暫存檔再改名，並將本機修改時間設為遠端時間供下次比對。單一檔案失敗不中斷同步，記錄於結果中。
+	 *
+	 * @param directory 遠端目錄
+	 * @param localDirectory 本機目錄
+	 * @return
+	 * @throws IOException 列目錄失敗或本機目錄無效
+	 */
+	public FtpMirrorResult mirror(String directory, String localDirectory) throws IOException {
+		long start = System.currentTimeMillis();
+		Path base;
+		try {
+			base = CheckmarxUtil.newFileSafely(localDirectory, null).toPath().normalize();
+		} catch (Exception e) {
+			throw new IOException("Invalid local directory: " + CheckmarxUtil.filterValidLog(localDirectory), e);
+		}
+		List<FtpFileEntry> entries = list(directory);
+
+		FtpMirrorResult result = new FtpMirrorResult();
+		List<FtpFileEntry> changed = new ArrayList<>();
+		for (FtpFileEntry entry : entries) {
+			Path target = resolve(base, entry);
+			if (entry.isDirectory()) {
+				Files.createDirectories(target);
+				continue;
+			}
+			result.setFiles(result.getFiles() + 1);
+			File local = target.toFile();
+			if (local.isFile() && local.length() == entry.getSize() && entry.getTimestamp() >= 0 && local.lastModified() == entry.getTimestamp()) {
+				result.getSkipped().incrementAndGet();
+			} else {
+				changed.add(entry);
+			}
+		}
+		// 大檔先下載，避免最後只剩單一連線在傳輸
+		changed.sort(Comparator.comparingLong(FtpFileEntry::getSize).reversed());
+
+		forEach(changed, (client, entry) -> {
+			Path target = resolve(base, entry);
+			Path part = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+			boolean success;
+			try (OutputStream os = Files.newOutputStream(part)) {
+				success = client.retrieveFile(entry.getRemotePath(), os);
+			}
+			if (success) {
+				Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				if (entry.getTimestamp() >= 0) {
+					target.toFile().setLastModified(entry.getTimestamp());
+				}
+				result.getDownloaded().incrementAndGet();
+				result.getBytes().addAndGet(entry.getSize());
+			} else {
+				Files.deleteIfExists(part);
+				log.warn("[FtpTreeWalker] Download {} fail: {}", CheckmarxUtil.filterValidLog(entry.getRelativePath()), client.getReplyCode());
+				result.getFailed().add(entry.getRelativePath());
+			}
+		}, result.getFailed());
+		result.setElapsedMillis(System.currentTimeMillis() - start);
+		return result;
+	}
+
+	private void forEach(Collection<FtpFileEntry> items, EntryTask task) throws IOException {
+		forEach(items, task, null);
+	}
+
+	/**
+	 * 以多個連線處理項目，每個 worker 借一個連線後持續取出項目直到佇列清空
+	 *
+	 * @param failed 不為 null 時單一項目失敗只記錄，連線失效則換新連線繼續；為 null 時任一失敗即中止
+	 */
+	private void forEach(Collection<FtpFileEntry> items, EntryTask task, List<String> failed) throws IOException {
+		if (items.isEmpty()) {
+			return;
+		}
+		Queue<FtpFileEntry> queue = new ConcurrentLinkedQueue<>(items);
+		AtomicBoolean stop = new AtomicBoolean();
+		int workers = Math.min(Math.max(parallelism, 1), items.size());
+		try {
+			List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+			for (int i = 0; i < workers; i++) {
+				futures.add(CompletableFuture.runAsync(() -> drain(queue, task, failed, stop), ftpExecutor));
+			}
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			throw e;
+		}
+	}
+
+	private void drain(Queue<FtpFileEntry> queue, EntryTask task, List<String> failed, AtomicBoolean stop) {
+		while (!stop.get() && !queue.isEmpty()) {
+			try (FtpSession session = ftpClientPool.borrowSession()) {
+				FtpFileEntry item;
+				while (!stop.get() && (item = queue.poll()) != null) {
+					try {
+						task.run(session.getClient(), item);
+					} catch (IOException e) {
+						session.invalidate();
+						if (failed == null) {
+							throw e;
+						}
+						log.warn("[FtpTreeWalker] {} fail: {}", CheckmarxUtil.filterValidLog(item.getRelativePath()), e.getMessage());
+						failed.add(item.getRelativePath());
+						// 換新連線繼續
+						break;
+					}
+				}
+			} catch (IOException e) {
+				stop.set(true);
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private Path resolve(Path base, FtpFileEntry entry) throws IOException {
+		Path target = base.resolve(entry.getRelativePath()).normalize();
+		// fix Path Traversal
+		if (!target.startsWith(base) || target.equals(base)) {
+			throw new IOException("Invalid remote path: " + CheckmarxUtil.filterValidLog(entry.getRelativePath()));
+		}
+		return target;
+	}
+
+	private FtpFileEntry rootEntry(String directory) {
+		FtpFileEntry root = new FtpFileEntry();
+		root.setRemotePath(directory);
+		root.setPath(decode(directory));
+		root.setRelativePath("");
+		root.setDirectory(true);
+		return root;
+	}
+
+	private FtpFileEntry toEntry(FtpFileEntry parent, FTPFile file, int depth) {
+		FtpFileEntry entry = new FtpFileEntry();
+		String name = decode(file.getName());
+		entry.setRemotePath(parent.getRemotePath() + SEPARATOR + file.getName());
+		entry.setPath(parent.getPath() + SEPARATOR + name);
+		entry.setRelativePath(parent.getRelativePath().isEmpty() ? name : parent.getRelativePath() + SEPARATOR + name);
+		entry.setDirectory(file.isDirectory());
+		entry.setSize(file.getSize());
+		entry.setTimestamp(file.getTimestamp() == null ? -1 : file.getTimestamp().getTimeInMillis());
+		entry.setDepth(depth);
+		return entry;
+	}
+
+	private String decode(String text) {
+		return new String(text.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+	}
+
+	@FunctionalInterface
+	private interface EntryTask {
+
+		void run(FTPClient client, FtpFileEntry entry) throws IOException;
+	}
+}
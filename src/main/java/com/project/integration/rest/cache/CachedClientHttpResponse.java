@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * 以快取內容回應，每次呼叫各自建立
+ *
+ * @since 1.0.0
+ */
+class CachedClientHttpResponse implements ClientHttpResponse {
+
+	private final RestCacheEntry entry;
+
+	private final HttpHeaders headers;
+
+	CachedClientHttpResponse(RestCacheEntry entry, long now) {
+		this.entry = entry;
+		this.headers = new HttpHeaders();
+		this.headers.putAll(entry.getHeaders());
+		this.headers.set(HttpHeaders.AGE, String.valueOf(entry.currentAgeMillis(now) / 1000));
+		this.headers.setContentLength(entry.getBody().length);
+		this.headers.remove(HttpHeaders.TRANSFER_ENCODING);
+	}
+
+	@Override
+	public HttpStatusCode getStatusCode() {
+		return HttpStatusCode.valueOf(entry.getStatusCode());
+	}
+
+	@Override
+	public String getStatusText() {
+		return entry.getStatusText();
+	}
+
+	@Override
+	public HttpHeaders getHeaders() {
+		return headers;
+	}
+
+	@Override
+	public InputStream getBody() {
+		return new ByteArrayInputStream(entry.getBody());
+	}
+
+	@Override
+	public void close() {
+		// 無連線需釋放
+	}
+}
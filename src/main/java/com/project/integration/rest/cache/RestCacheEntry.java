@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.cache;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 快取的回應
+ * <p>
+ * 新鮮度依 RFC 9111 以共用快取的規則計算：s-maxage 優先於 max-age，其次為 Expires 減 Date，都沒有時視為過期、每次使用前需重新驗證。
+ *
+ * @since 1.0.0
+ */
+public final class RestCacheEntry {
+
+	private final String key;
+
+	private final int statusCode;
+
+	private final String statusText;
+
+	private final HttpHeaders headers;
+
+	/** Vary 指定的 request header 於快取當時的值 */
+	private final HttpHeaders varyHeaders;
+
+	private final byte[] body;
+
+	private final long storedAt;
+
+	RestCacheEntry(String key, int statusCode, String statusText, HttpHeaders headers, HttpHeaders varyHeaders, byte[] body, long storedAt) {
+		this.key = key;
+		this.statusCode = statusCode;
+		this.statusText = statusText;
+		this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+		this.varyHeaders = HttpHeaders.readOnlyHttpHeaders(varyHeaders);
+		this.body = body;
+		this.storedAt = storedAt;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	public String getStatusText() {
+		return statusText;
+	}
+
+	public HttpHeaders getHeaders() {
+		return headers;
+	}
+
+	HttpHeaders getVaryHeaders() {
+		return varyHeaders;
+	}
+
+	byte[] getBody() {
+		return body;
+	}
+
+	public long getStoredAt() {
+		return storedAt;
+	}
+
+	/**
+	 * 記憶體用量估計
+	 */
+	long weight() {
+		long weight = body.length + key.length() * 2L + 64;
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			weight += header.getKey().length() * 2L;
+			for (String value : header.getValue()) {
+				weight += value.length() * 2L;
+			}
+		}
+		return weight;
+	}
+
+	public boolean isFresh(long now) {
+		return currentAgeMillis(now) < freshnessLifetimeMillis();
+	}
+
+	/**
+	 * request 的 Vary header 值是否與快取當時相同
+	 */
+	boolean matches(HttpHeaders requestHeaders) {
+		for (String name : varyHeaders.keySet()) {
+			if (!varyHeaders.getValuesAsList(name).equals(requestHeaders.getValuesAsList(name))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	long freshnessLifetimeMillis() {
+		Map<String, String> directives = directives(headers);
+		if (directives.containsKey("no-cache")) {
+			return 0;
+		}
+		long seconds = NumberUtils.toLong(directives.get("s-maxage"), -1);
+		if (seconds < 0) {
+			seconds = NumberUtils.toLong(directives.get("max-age"), -1);
+		}
+		if (seconds >= 0) {
+			return seconds * 1000;
+		}
+		long expires = headers.getExpires();
+		if (expires > 0) {
+			long date = headers.getDate();
+			return Math.max(0, expires - (date > 0 ? date : storedAt));
+		}
+		return 0;
+	}
+
+	long currentAgeMillis(long now) {
+		long age = NumberUtils.toLong(headers.getFirst(HttpHeaders.AGE), 0) * 1000;
+		return age + Math.max(0, now - storedAt);
+	}
+
+	/**
+	 * 將 304 回應的 header 併入，重新計算新鮮度
+	 */
+	RestCacheEntry revalidated(HttpHeaders notModifiedHeaders, long now) {
+		HttpHeaders merged = new HttpHeaders();
+		merged.putAll(headers);
+		notModifiedHeaders.forEach((name, values) -> {
+			if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+				merged.put(name, values);
+			}
+		});
+		if (!notModifiedHeaders.containsKey(HttpHeaders.AGE)) {
+			merged.remove(HttpHeaders.AGE);
+		}
+		return new RestCacheEntry(key, statusCode, statusText, merged, varyHeaders, body, now);
+	}
+
+	/**
+	 * 解析 Cache-Control，key 為小寫的指令名稱，沒有值的指令其值為空字串
+	 */
+	static Map<String, String> directives(HttpHeaders headers) {
+		Map<String, String> directives = new LinkedHashMap<>();
+		for (String header : headers.getValuesAsList(HttpHeaders.CACHE_CONTROL)) {
+			for (String directive : header.split(",")) {
+				String token = directive.trim();
+				if (token.isEmpty()) {
+					continue;
+				}
+				int eq = token.indexOf('=');
+				String name = (eq < 0 ? token : token.substring(0, eq)).trim().toLowerCase(Locale.ROOT);
+				String value = eq < 0 ? "" : StringUtils.strip(token.substring(eq + 1).trim(), "\"");
+				directives.putIfAbsent(name, value);
+			}
+		}
+		return directives;
+	}
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.cache;
+
+import com.project.integration.rest.config.RestCacheProperties;
+import com.project.integration.rest.resilience.RestResilience;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET 回應快取
+ * <p>
+ * 依 Cache-Control、Expires、ETag、Last-Modified 判斷可否快取，新鮮時直接回應，過期時帶 If-None-Match / If-Modified-Since 重新驗證，
+ * 收到 304 沿用快取內容。以共用快取處理：帶 Authorization 或 Cookie 的 request 與 private、no-store 的回應不快取。
+ * 同時送出的相同 request 只有第一個實際呼叫，其餘等待並共用其可快取的回應；重試與 hedge 的呼叫不等待，直接送出。
+ * 有 MeterRegistry 時註冊 rest.cache.requests，result 為 hit、miss、revalidated、coalesced、bypass。
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class RestCacheInterceptor implements ClientHttpRequestInterceptor {
+
+	private static final Set<Integer> CACHEABLE_STATUS = Set.of(200, 203);
+
+	/** 不需保存的 header */
+	private static final Set<String> EXCLUDED_HEADERS = Set.of(HttpHeaders.CONNECTION.toLowerCase(), "keep-alive", HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+			HttpHeaders.SET_COOKIE.toLowerCase());
+
+	private final RestCacheProperties properties;
+
+	private final RestCacheStore store;
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	private final Map<String, CompletableFuture<RestCacheEntry>> inflight = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder revalidated = new LongAdder();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	private final LongAdder bypassed = new LongAdder();
+
+	public RestCacheInterceptor(RestCacheProperties properties, RestCacheStore store, ObjectProvider<MeterRegistry> meterRegistry) {
+		this.properties = properties;
+		this.store = store;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@PostConstruct
+	public void init() {
+		meterRegistry.ifAvailable(this::bindMetrics);
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		HttpHeaders headers = request.getHeaders();
+		String key = request.getURI().toString();
+		if (!properties.isCacheable(key) || !HttpMethod.GET.equals(request.getMethod()) || !isCacheableRequest(headers)) {
+			bypassed.increment();
+			return execution.execute(request, body);
+		}
+		Map<String, String> directives = RestCacheEntry.directives(headers);
+		boolean forceRevalidate = directives.containsKey("no-cache") || "0".equals(directives.get("max-age"));
+		RestCacheEntry cached = store.get(key);
+		if (cached != null && !cached.matches(headers)) {
+			cached = null;
+		}
+		if (cached != null && !forceRevalidate && cached.isFresh(System.currentTimeMillis())) {
+			hits.increment();
+			return new CachedClientHttpResponse(cached, System.currentTimeMillis());
+		}
+
+		String flightKey = key + '\n' + headers;
+		CompletableFuture<RestCacheEntry> flight = new CompletableFuture<>();
+		// hedge 用來與緩慢的呼叫競爭，不可等待該呼叫
+		boolean repeated = RestResilience.isRepeatedAttempt();
+		CompletableFuture<RestCacheEntry> leader = repeated ? null : inflight.putIfAbsent(flightKey, flight);
+		if (leader != null) {
+			RestCacheEntry shared = await(leader);
+			if (shared != null) {
+				coalesced.increment();
+				return new CachedClientHttpResponse(shared, System.currentTimeMillis());
+			}
+			// 先送出的回應不可快取，自行呼叫
+			misses.increment();
+			return execution.execute(request, body);
+		}
+		RestCacheEntry stored = null;
+		try {
+			if (cached != null) {
+				addValidators(headers, cached);
+			}
+			ClientHttpResponse response = execution.execute(request, body);
+			if (cached != null && response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+				HttpHeaders notModified = response.getHeaders();
+				response.close();
+				stored = cached.revalidated(notModified, System.currentTimeMillis());
+				store.put(stored);
+				revalidated.increment();
+				return new CachedClientHttpResponse(stored, System.currentTimeMillis());
+			}
+			misses.increment();
+			if (!isStorable(response)) {
+				if (cached != null && response.getStatusCode().is2xxSuccessful()) {
+					store.remove(key);
+				}
+				return response;
+			}
+			long contentLength = response.getHeaders().getContentLength();
+			if (contentLength > properties.getMaxEntryBytes()) {
+				return response;
+			}
+			InputStream in = response.getBody();
+			byte[] bytes = in.readNBytes(properties.getMaxEntryBytes() + 1);
+			if (bytes.length > properties.getMaxEntryBytes()) {
+				// 長度未知且過大，已讀取的部分接回串流
+				return new PrefixedClientHttpResponse(response, bytes);
+			}
+			long now = System.currentTimeMillis();
+			stored = new RestCacheEntry(key, response.getStatusCode().value(), response.getStatusText(), storedHeaders(response.getHeaders()),
+					varyHeaders(response.getHeaders(), headers), bytes, now);
+			response.close();
+			store.put(stored);
+			return new CachedClientHttpResponse(stored, now);
+		} finally {
+			if (!repeated) {
+				inflight.remove(flightKey, flight);
+				flight.complete(stored);
+			}
+		}
+	}
+
+	private boolean isCacheableRequest(HttpHeaders headers) {
+		if (headers.containsKey(HttpHeaders.AUTHORIZATION) || headers.containsKey(HttpHeaders.COOKIE) || headers.containsKey(HttpHeaders.RANGE)) {
+			return false;
+		}
+		// 呼叫端自行處理條件式 request
+		if (headers.containsKey(HttpHeaders.IF_NONE_MATCH) || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE)) {
+			return false;
+		}
+		return !RestCacheEntry.directives(headers).containsKey("no-store");
+	}
+
+	private boolean isStorable(ClientHttpResponse response) throws IOException {
+		if (!CACHEABLE_STATUS.contains(response.getStatusCode().value())) {
+			return false;
+		}
+		HttpHeaders headers = response.getHeaders();
+		Map<String, String> directives = RestCacheEntry.directives(headers);
+		if (directives.containsKey("no-store") || directives.containsKey("private")) {
+			return false;
+		}
+		if (headers.getVary().contains("*")) {
+			return false;
+		}
+		return directives.containsKey("max-age") || directives.containsKey("s-maxage") || headers.containsKey(HttpHeaders.EXPIRES)
+				|| headers.getETag() != null || headers.containsKey(HttpHeaders.LAST_MODIFIED);
+	}
+
+	private void addValidators(HttpHeaders headers, RestCacheEntry cached) {
+		String etag = cached.getHeaders().getETag();
+		if (etag != null) {
+			headers.setIfNoneMatch(etag);
+		}
+		String lastModified = cached.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+		if (lastModified != null) {
+			headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+		}
+	}
+
+	private HttpHeaders storedHeaders(HttpHeaders responseHeaders) {
+		HttpHeaders headers = new HttpHeaders();
+		responseHeaders.forEach((name, values) -> {
+			if (!EXCLUDED_HEADERS.contains(name.toLowerCase())) {
+				headers.put(name, values);
+			}
+		});
+		return headers;
+	}
+
+	private HttpHeaders varyHeaders(HttpHeaders responseHeaders, HttpHeaders requestHeaders) {
+		HttpHeaders vary = new HttpHeaders();
+		for (String name : responseHeaders.getVary()) {
+			vary.put(name, requestHeaders.getValuesAsList(name));
+		}
+		return vary;
+	}
+
+	private RestCacheEntry await(CompletableFuture<RestCacheEntry> leader) throws IOException {
+		try {
+			return leader.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for concurrent request");
+		} catch (ExecutionException e) {
+			return null;
+		}
+	}
+
+	private void bindMetrics(MeterRegistry registry) {
+		FunctionCounter.builder("rest.cache.requests", hits, LongAdder::sum).tag("result", "hit").register(registry);
+		FunctionCounter.builder("rest.cache.requests", misses, LongAdder::sum).tag("result", "miss").register(registry);
+		FunctionCounter.builder("rest.cache.requests", revalidated, LongAdder::sum).tag("result", "revalidated").register(registry);
+		FunctionCounter.builder("rest.cache.requests", coalesced, LongAdder::sum).tag("result", "coalesced").register(registry);
+		FunctionCounter.builder("rest.cache.requests", bypassed, LongAdder::sum).tag("result", "bypass").register(registry);
+	}
+
+	/**
+	 * 判斷大小時已讀取的部分放回 body 前端
+	 */
+	private static final class PrefixedClientHttpResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse delegate;
+
+		private final InputStream body;
+
+		PrefixedClientHttpResponse(ClientHttpResponse delegate, byte[] prefix) throws IOException {
+			this.delegate = delegate;
+			this.body = new SequenceInputStream(new ByteArrayInputStream(prefix), delegate.getBody());
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return delegate.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return delegate.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return delegate.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() {
+			return body;
+		}
+
+		@Override
+		public void close() {
+			delegate.close();
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.cache;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+
+/**
+ * 只讓 GET 經過快取 interceptor
+ * <p>
+ * 直接設定 RestTemplate.setInterceptors 會使所有 request body 暫存於記憶體，其他方法改為直接交給原本的 factory 以維持串流。
+ *
+ * @since 1.0.0
+ */
+public class RestCacheRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+
+	private final ClientHttpRequestFactory cachingRequestFactory;
+
+	public RestCacheRequestFactory(ClientHttpRequestFactory requestFactory, ClientHttpRequestInterceptor cacheInterceptor) {
+		super(requestFactory);
+		this.cachingRequestFactory = new InterceptingClientHttpRequestFactory(requestFactory, List.of(cacheInterceptor));
+	}
+
+	@Override
+	protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, ClientHttpRequestFactory requestFactory) throws IOException {
+		if (HttpMethod.GET.equals(httpMethod)) {
+			return cachingRequestFactory.createRequest(uri, httpMethod);
+		}
+		return requestFactory.createRequest(uri, httpMethod);
+	}
+}
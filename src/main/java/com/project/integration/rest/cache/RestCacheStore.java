@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.cache;
+
+import com.project.integration.rest.config.RestCacheProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * 回應快取的儲存
+ * <p>
+ * 記憶體依最近使用排序，超過 rest.cache.max-entries 或 max-memory-bytes 時移出最久未使用者；有設定 disk-dir 時移出的資料寫入磁碟，
+ * 之後命中再讀回記憶體。磁碟同樣依最近使用排序並限制於 max-disk-bytes。有 MeterRegistry 時註冊 rest.cache.entries 與 rest.cache.size。
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class RestCacheStore {
+
+	private static final String FILE_SUFFIX = ".cache";
+
+	private static final int FORMAT_VERSION = 1;
+
+	private final RestCacheProperties properties;
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	/** access-order，第一筆為最久未使用 */
+	private final LinkedHashMap<String, RestCacheEntry> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long memoryBytes;
+
+	/** 磁碟上的檔名與大小，access-order */
+	private final LinkedHashMap<String, Long> diskIndex = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long diskBytes;
+
+	private Path diskDir;
+
+	public RestCacheStore(RestCacheProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@PostConstruct
+	public void init() {
+		if (StringUtils.isNotBlank(properties.getDiskDir())) {
+			diskDir = Paths.get(properties.getDiskDir());
+			loadDiskIndex();
+		}
+		meterRegistry.ifAvailable(this::bindMetrics);
+	}
+
+	public RestCacheEntry get(String key) {
+		synchronized (this) {
+			RestCacheEntry entry = memory.get(key);
+			if (entry != null || diskDir == null) {
+				return entry;
+			}
+		}
+		RestCacheEntry entry = readDisk(key);
+		if (entry != null) {
+			// 讀回記憶體，磁碟上的檔案刪除
+			put(entry);
+		}
+		return entry;
+	}
+
+	public void put(RestCacheEntry entry) {
+		long weight = entry.weight();
+		if (weight > properties.getMaxMemoryBytes()) {
+			return;
+		}
+		List<RestCacheEntry> evicted = new ArrayList<>();
+		synchronized (this) {
+			RestCacheEntry previous = memory.put(entry.getKey(), entry);
+			if (previous != null) {
+				memoryBytes -= previous.weight();
+			}
+			memoryBytes += weight;
+			Iterator<RestCacheEntry> it = memory.values().iterator();
+			while ((memory.size() > properties.getMaxEntries() || memoryBytes > properties.getMaxMemoryBytes()) && it.hasNext()) {
+				RestCacheEntry eldest = it.next();
+				it.remove();
+				memoryBytes -= eldest.weight();
+				evicted.add(eldest);
+			}
+		}
+		if (diskDir != null) {
+			deleteDisk(entry.getKey());
+			evicted.forEach(this::writeDisk);
+		}
+	}
+
+	public void remove(String key) {
+		synchronized (this) {
+			RestCacheEntry previous = memory.remove(key);
+			if (previous != null) {
+				memoryBytes -= previous.weight();
+			}
+		}
+		if (diskDir != null) {
+			deleteDisk(key);
+		}
+	}
+
+	public synchronized int getMemoryEntries() {
+		return memory.size();
+	}
+
+	public synchronized long getMemoryBytes() {
+		return memoryBytes;
+	}
+
+	public int getDiskEntries() {
+		synchronized (diskIndex) {
+			return diskIndex.size();
+		}
+	}
+
+	public long getDiskBytes() {
+		synchronized (diskIndex) {
+			return diskBytes;
+		}
+	}
+
+	private void bindMetrics(MeterRegistry registry) {
+		Gauge.builder("rest.cache.entries", this, RestCacheStore::getMemoryEntries).tag("tier", "memory").register(registry);
+		Gauge.builder("rest.cache.size", this, RestCacheStore::getMemoryBytes).tag("tier", "memory").baseUnit("bytes").register(registry);
+		if (diskDir != null) {
+			Gauge.builder("rest.cache.entries", this, RestCacheStore::getDiskEntries).tag("tier", "disk").register(registry);
+			Gauge.builder("rest.cache.size", this, RestCacheStore::getDiskBytes).tag("tier", "disk").baseUnit("bytes").register(registry);
+		}
+	}
+
+	/**
+	 * 依修改時間載入既有檔案，重新啟動後仍可使用
+	 */
+	private void loadDiskIndex() {
+		try {
+			Files.createDirectories(diskDir);
+			List<Path> files;
+			try (Stream<Path> stream = Files.list(diskDir)) {
+				files = stream.filter(p -> p.getFileName().toString().endsWith(FILE_SUFFIX)).sorted(Comparator.comparing(p -> p.toFile().lastModified()))
+						.toList();
+			}
+			synchronized (diskIndex) {
+				for (Path file : files) {
+					long size = Files.size(file);
+					diskIndex.put(file.getFileName().toString(), size);
+					diskBytes += size;
+				}
+			}
+			trimDisk();
+		} catch (IOException e) {
+			log.warn("[RestCacheStore] Disk cache {} unavailable: {}", diskDir, e.getMessage());
+			diskDir = null;
+		}
+	}
+
+	private RestCacheEntry readDisk(String key) {
+		String fileName = fileName(key);
+		synchronized (diskIndex) {
+			if (!diskIndex.containsKey(fileName)) {
+				return null;
+			}
+			Path file = diskDir.resolve(fileName);
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+				RestCacheEntry entry = read(in);
+				// 檔名雜湊碰撞時視為未命中
+				return key.equals(entry.getKey()) ? entry : null;
+			} catch (NoSuchFileException e) {
+				deleteFile(fileName);
+				return null;
+			} catch (IOException | RuntimeException e) {
+				log.warn("[RestCacheStore] Read {} fail: {}", file, e.getMessage());
+				deleteFile(fileName);
+				return null;
+			}
+		}
+	}
+
+	private void writeDisk(RestCacheEntry entry) {
+		String fileName = fileName(entry.getKey());
+		synchronized (diskIndex) {
+			Path file = diskDir.resolve(fileName);
+			Path temp = diskDir.resolve(fileName + ".tmp");
+			try {
+				try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+					write(out, entry);
+				}
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				long size = Files.size(file);
+				Long previous = diskIndex.put(fileName, size);
+				diskBytes += size - (previous != null ? previous : 0);
+				trimDisk();
+			} catch (IOException e) {
+				log.warn("[RestCacheStore] Write {} fail: {}", file, e.getMessage());
+				try {
+					Files.deleteIfExists(temp);
+				} catch (IOException ignore) {
+					// 下次寫入時覆蓋
+				}
+			}
+		}
+	}
+
+	private void deleteDisk(String key) {
+		synchronized (diskIndex) {
+			String fileName = fileName(key);
+			if (diskIndex.containsKey(fileName)) {
+				deleteFile(fileName);
+			}
+		}
+	}
+
+	private void trimDisk() {
+		synchronized (diskIndex) {
+			Iterator<Map.Entry<String, Long>> it = diskIndex.entrySet().iterator();
+			while (diskBytes > properties.getMaxDiskBytes() && it.hasNext()) {
+				Map.Entry<String, Long> eldest = it.next();
+				it.remove();
+				deleteFile(eldest.getKey(), eldest.getValue());
+			}
+		}
+	}
+
+	private void deleteFile(String fileName) {
+		Long size = diskIndex.remove(fileName);
+		if (size != null) {
+			deleteFile(fileName, size);
+		}
+	}
+
+	private void deleteFile(String fileName, long size) {
+		diskBytes -= size;
+		try {
+			Files.deleteIfExists(diskDir.resolve(fileName));
+		} catch (IOException e) {
+			log.warn("[RestCacheStore] Delete {} fail: {}", fileName, e.getMessage());
+		}
+	}
+
+	private static String fileName(String key) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest) + FILE_SUFFIX;
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void write(DataOutputStream out, RestCacheEntry entry) throws IOException {
+		out.writeInt(FORMAT_VERSION);
+		out.writeUTF(entry.getKey());
+		out.writeInt(entry.getStatusCode());
+		out.writeUTF(entry.getStatusText());
+		out.writeLong(entry.getStoredAt());
+		writeHeaders(out, entry.getHeaders());
+		writeHeaders(out, entry.getVaryHeaders());
+		out.writeInt(entry.getBody().length);
+		out.write(entry.getBody());
+	}
+
+	private static RestCacheEntry read(DataInputStream in) throws IOException {
+		if (in.readInt() != FORMAT_VERSION) {
+			throw new IOException("Unsupported cache file version");
+		}
+		String key = in.readUTF();
+		int statusCode = in.readInt();
+		String statusText = in.readUTF();
+		long storedAt = in.readLong();
+		HttpHeaders headers = readHeaders(in);
+		HttpHeaders varyHeaders = readHeaders(in);
+		byte[] body = new byte[in.readInt()];
+		in.readFully(body);
+		return new RestCacheEntry(key, statusCode, statusText, headers, varyHeaders, body, storedAt);
+	}
+
+	private static void writeHeaders(DataOutputStream out, HttpHeaders headers) throws IOException {
+		out.writeInt(headers.size());
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			out.writeUTF(header.getKey());
+			out.writeInt(header.getValue().size());
+			for (String value : header.getValue()) {
+				out.writeUTF(value);
+			}
+		}
+	}
+
+	private static HttpHeaders readHeaders(DataInputStream in) throws IOException {
+		HttpHeaders headers = new HttpHeaders();
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			String name = in.readUTF();
+			int values = in.readInt();
+			for (int j = 0; j < values; j++) {
+				headers.add(name, in.readUTF());
+			}
+		}
+		return headers;
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * RestTemplate GET 回應快取設定
+ * <p>
+ * 預設關閉；開啟後只快取符合 url-prefixes 的 URL，url-prefixes 空白時快取所有 GET。
+ *
+ * @since 1.0.0
+ */
+@Component
+@ConfigurationProperties(prefix = "rest.cache")
+@Data
+public class RestCacheProperties {
+
+	private boolean enabled = false;
+
+	/** 要快取的 URL 前綴 */
+	private List<String> urlPrefixes = new ArrayList<>();
+
+	/** 記憶體中的最大筆數 */
+	private int maxEntries = 1000;
+
+	/** 記憶體中的 body 與 header 總大小上限 */
+	private long maxMemoryBytes = 64L * 1024 * 1024;
+
+	/** 超過此大小的回應不快取，直接串流給呼叫端 */
+	private int maxEntryBytes = 1024 * 1024;
+
+	/** 記憶體滿時移出的資料寫入此目錄，空白時不使用磁碟 */
+	private String diskDir;
+
+	private long maxDiskBytes = 512L * 1024 * 1024;
+
+	/**
+	 * url 是否使用快取
+	 */
+	public boolean isCacheable(String url) {
+		if (!enabled) {
+			return false;
+		}
+		if (urlPrefixes.isEmpty()) {
+			return true;
+		}
+		for (String prefix : urlPrefixes) {
+			if (url.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
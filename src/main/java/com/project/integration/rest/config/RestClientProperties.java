@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 對外 REST 呼叫的連線池設定，同步 RestTemplate 與非同步 client 共用
+ *
+ * @since 1.0.0
+ */
+@Component
+@ConfigurationProperties(prefix = "rest.pool")
+@Data
+public class RestClientProperties {
+
+	private int maxTotal = 50;
+
+	private int defaultMaxPerRoute = 10;
+
+	/** 個別主機的連線數上限，key 為 scheme://host[:port] */
+	private Map<String, Integer> maxPerRoute = new LinkedHashMap<>();
+
+	/** 非同步 client 等待回應的逾時 */
+	private long responseTimeoutMillis = 30000;
+
+	/** 需要將 request/response body 暫存於記憶體的 URL 前綴，例如需追蹤內容的路由，其餘一律串流 */
+	private List<String> bufferedRoutes = new ArrayList<>();
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * RestDao 呼叫的斷路器、併發上限、逾時、重試與 hedge 設定
+ * <p>
+ * routes 的 key 為 URL 前綴，最長相符者優先，未設定的欄位沿用 defaults。未符合任何前綴的呼叫依 scheme://host:port 各自計算狀態。
+ *
+ * @since 1.0.0
+ */
+@Component
+@ConfigurationProperties(prefix = "rest.resilience")
+@Data
+public class RestResilienceProperties {
+
+	private boolean enabled = true;
+
+	private Policy defaults = Policy.defaults();
+
+	private Map<String, Policy> routes = new LinkedHashMap<>();
+
+	/**
+	 * 取得 url 適用的路由前綴，沒有時為 null
+	 */
+	public String matchRoute(String url) {
+		String matched = null;
+		for (String prefix : routes.keySet()) {
+			if (url.startsWith(prefix) && (matched == null || prefix.length() > matched.length())) {
+				matched = prefix;
+			}
+		}
+		return matched;
+	}
+
+	/**
+	 * 路由設定與 defaults 合併後的結果
+	 */
+	public Policy resolve(String route) {
+		Policy policy = route != null ? routes.get(route) : null;
+		return policy != null ? policy.merge(defaults) : defaults;
+	}
+
+	@Data
+	public static class Policy {
+
+		/** 失敗率達此百分比時斷路 */
+		private Integer failureRateThreshold;
+
+		/** 計算失敗率的最近呼叫數 */
+		private Integer slidingWindowSize;
+
+		/** 視窗內至少有此呼叫數才計算失敗率 */
+		private Integer minimumNumberOfCalls;
+
+		/** 斷路後多久允許試探呼叫 */
+		private Long openStateMillis;
+
+		/** 半開狀態允許的試探呼叫數，全部成功才恢復 */
+		private Integer halfOpenCalls;
+
+		/** 同時呼叫數上限 */
+		private Integer maxConcurrentCalls;
+
+		/** 達上限時等待的時間，0 為立即拒絕 */
+		private Long maxWaitMillis;
+
+		/** 以主機為單位，只有 defaults 與前綴為 scheme://host[:port] 的路由有效；未設定時使用 rest.connectTimeout */
+		private Long connectTimeoutMillis;
+
+		/** 未設定時不限制 */
+		private Long responseTimeoutMillis;
+
+		/** GET、HEAD、OPTIONS、PUT、DELETE 連線錯誤或 429、502、503、504 時的重試次數 */
+		private Integer maxRetries;
+
+		/** 第 n 次重試前等待 0 至 min(retryBackoffMillis * 2^n, retryMaxBackoffMillis) 的隨機時間 */
+		private Long retryBackoffMillis;
+
+		private Long retryMaxBackoffMillis;
+
+		/** 冪等呼叫超過此時間未回應時再送出一次，取先回應者，0 為停用 */
+		private Long hedgeDelayMillis;
+
+		static Policy defaults() {
+			Policy policy = new Policy();
+			policy.setFailureRateThreshold(50);
+			policy.setSlidingWindowSize(20);
+			policy.setMinimumNumberOfCalls(10);
+			policy.setOpenStateMillis(30000L);
+			policy.setHalfOpenCalls(3);
+			policy.setMaxConcurrentCalls(20);
+			policy.setMaxWaitMillis(0L);
+			policy.setMaxRetries(2);
+			policy.setRetryBackoffMillis(200L);
+			policy.setRetryMaxBackoffMillis(2000L);
+			policy.setHedgeDelayMillis(0L);
+			return policy;
+		}
+
+		Policy merge(Policy defaults) {
+			Policy policy = new Policy();
+			policy.setFailureRateThreshold(failureRateThreshold != null ? failureRateThreshold : defaults.getFailureRateThreshold());
+			policy.setSlidingWindowSize(slidingWindowSize != null ? slidingWindowSize : defaults.getSlidingWindowSize());
+			policy.setMinimumNumberOfCalls(minimumNumberOfCalls != null ? minimumNumberOfCalls : defaults.getMinimumNumberOfCalls());
+			policy.setOpenStateMillis(openStateMillis != null ? openStateMillis : defaults.getOpenStateMillis());
+			policy.setHalfOpenCalls(halfOpenCalls != null ? halfOpenCalls : defaults.getHalfOpenCalls());
+			policy.setMaxConcurrentCalls(maxConcurrentCalls != null ? maxConcurrentCalls : defaults.getMaxConcurrentCalls());
+			policy.setMaxWaitMillis(maxWaitMillis != null ? maxWaitMillis : defaults.getMaxWaitMillis());
+			policy.setConnectTimeoutMillis(connectTimeoutMillis != null ? connectTimeoutMillis : defaults.getConnectTimeoutMillis());
+			policy.setResponseTimeoutMillis(responseTimeoutMillis != null ? responseTimeoutMillis : defaults.getResponseTimeoutMillis());
+			policy.setMaxRetries(maxRetries != null ? maxRetries : defaults.getMaxRetries());
+			policy.setRetryBackoffMillis(retryBackoffMillis != null ? retryBackoffMillis : defaults.getRetryBackoffMillis());
+			policy.setRetryMaxBackoffMillis(retryMaxBackoffMillis != null ? retryMaxBackoffMillis : defaults.getRetryMaxBackoffMillis());
+			policy.setHedgeDelayMillis(hedgeDelayMillis != null ? hedgeDelayMillis : defaults.getHedgeDelayMillis());
+			return policy;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.dao;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+
+/**
+ * 非同步 REST 呼叫，等待回應期間不佔用呼叫端執行緒
+ * <p>
+ * 預設值與 {@link RestDao} 相同：未指定 method 時為 POST，Accept 與 Content-Type 為 JSON。
+ * 失敗時 future 以 RuntimeException 結束，cause 為 HttpStatusCodeException 或連線錯誤。
+ *
+ * @since 1.0.0
+ */
+public interface AsyncRestDao {
+
+	<T> CompletableFuture<T> apiAsync(String url, Class<T> responseClazz);
+
+	<T> CompletableFuture<T> apiAsync(String url, HttpMethod httpMethod, Class<T> responseClazz);
+
+	<T> CompletableFuture<T> apiAsync(String url, Object req, Class<T> responseClazz);
+
+	<T> CompletableFuture<T> apiAsync(String url, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req, Class<T> responseClazz);
+
+	<T> CompletableFuture<T> apiAsync(String url, Type type, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req);
+
+	/**
+	 * 以相同參數同時呼叫多個 url
+	 *
+	 * @return 依 urls 順序排列的結果，任一失敗即失敗並取消其餘呼叫
+	 */
+	<T> CompletableFuture<List<T>> fanOut(Collection<String> urls, Type type, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req);
+
+	/**
+	 * 等待多個呼叫完成，與 {@link CompletableFuture#allOf} 不同的是任一失敗時立即結束並取消其餘呼叫
+	 *
+	 * @param futures 要等待的呼叫，任一失敗時其餘會被 cancel
+	 * @return 全部成功時完成；任一失敗時以該例外完成
+	 */
+	CompletableFuture<Void> allOf(CompletableFuture<?>... futures);
+}
@@ -4,7 +4,12 @@
  */
 package com.project.integration.rest.dao;
 
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.Nullable;
@@ -33,4 +38,44 @@ public interface RestDao {
 	<T> T api(String url, Type type, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req);
 
 	<T> T api(String url, Type type, @Nullable HttpMethod httpMethod, HttpHeaders header, @Nullable Object req, @Nullable RestTemplate restTemplate);
+
+	/*
+	 * 以下為串流模式，response body 不完整載入記憶體。
+	 * req 為 byte[]、String、InputStream、Resource、Path 時原樣寫出，其他物件以 JSON 直接寫入連線。
+	 */
+
+	/**
+	 * 將 response body 寫入 out，out 不會被關閉
+	 *
+	 * @return 寫入的位元組數
+	 */
+	long download(String url, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req, OutputStream out);
+
+	/**
+	 * 將 response body 寫入檔案，先寫入同目錄的 .part 檔，完成後取代 target
+	 *
+	 * @return 寫入的位元組數
+	 */
+	long download(String url, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req, Path target);
+
+	/**
+	 * 以 Jackson 串流解析 response，parser 於 callback 結束後關閉
+	 */
+	<T> T stream(String url, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req, JsonParserCallback<T> callback);
+
+	/**
+	 * 逐筆讀取 response 的 JSON 陣列
+	 *
+	 * @return 處理的筆數
+	 */
+	<E> long forEach(String url, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req, Class<E> elementType, Consumer<? super E> action);
+
+	/**
+	 * 讀取 response 的動作
+	 */
+	@FunctionalInterface
+	interface JsonParserCallback<T> {
+
+		T doWithParser(JsonParser parser) throws IOException;
+	}
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.dao.impl;
+
+import com.bi.base.i18n.util.I18nUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.integration.rest.dao.AsyncRestDao;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * 以 HttpClient 5 async client 實作的 {@link AsyncRestDao}
+ * <p>
+ * 回應於 I/O 執行緒接收後交給 restAsyncExecutor 反序列化並完成 future，後續的 thenApply 等動作不會佔用 I/O 執行緒。
+ * restAsyncExecutor 已滿時拒絕，future 以例外完成，不改由 I/O 執行緒處理。
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class AsyncRestDaoImpl implements AsyncRestDao {
+
+	@Autowired
+	private CloseableHttpAsyncClient httpAsyncClient;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	@Qualifier("restAsyncExecutor")
+	private Executor executor;
+
+	@Override
+	public <T> CompletableFuture<T> apiAsync(String url, Class<T> responseClazz) {
+		return apiAsync(url, responseClazz, null, new HttpHeaders(), null);
+	}
+
+	@Override
+	public <T> CompletableFuture<T> apiAsync(String url, HttpMethod httpMethod, Class<T> responseClazz) {
+		return apiAsync(url, responseClazz, httpMethod, null, null);
+	}
+
+	@Override
+	public <T> CompletableFuture<T> apiAsync(String url, Object req, Class<T> responseClazz) {
+		return apiAsync(url, responseClazz, null, new HttpHeaders(), req);
+	}
+
+	@Override
+	public <T> CompletableFuture<T> apiAsync(String url, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req, Class<T> responseClazz) {
+		return apiAsync(url, responseClazz, httpMethod, header, req);
+	}
+
+	@Override
+	public <T> CompletableFuture<T> apiAsync(String url, Type type, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req) {
+		// Set default
+		HttpMethod method = httpMethod != null ? httpMethod : HttpMethod.POST;
+		HttpHeaders headers = header != null ? header : new HttpHeaders();
+		if (CollectionUtils.isEmpty(headers.getAccept())) {
+			headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
+		}
+		if (headers.getContentType() == null) {
+			headers.setContentType(MediaType.APPLICATION_JSON);
+		}
+		log.debug("REST URL: {}, method: {}, header: {}", url, method, headers);
+
+		CompletableFuture<T> future = new CompletableFuture<>();
+		SimpleHttpRequest request;
+		try {
+			request = buildRequest(url, method, headers, req);
+		} catch (Exception e) {
+			future.completeExceptionally(new RuntimeException(I18nUtil.getMessage("rest.exception"), e));
+			return future;
+		}
+		Future<SimpleHttpResponse> call = httpAsyncClient.execute(request, new FutureCallback<>() {
+
+			@Override
+			public void completed(SimpleHttpResponse response) {
+				dispatch(future, () -> {
+					try {
+						T body = readBody(response, type);
+						if (log.isTraceEnabled()) {
+							log.trace("REST URL: {}, method: {}, header: {}, body: {}, response: {}", url, method, headers, req, body);
+						}
+						future.complete(body);
+					} catch (Exception e) {
+						future.completeExceptionally(new RuntimeException(I18nUtil.getMessage("rest.exception"), e));
+					}
+				});
+			}
+
+			@Override
+			public void failed(Exception ex) {
+				dispatch(future, () -> future.completeExceptionally(new RuntimeException(I18nUtil.getMessage("rest.exception"), ex)));
+			}
+
+			@Override
+			public void cancelled() {
+				future.cancel(false);
+			}
+		});
+		// 呼叫端取消時一併中止連線
+		future.whenComplete((result, ex) -> {
+			if (future.isCancelled()) {
+				call.cancel(true);
+			}
+		});
+		return future;
+	}
+
+	@Override
+	public <T> CompletableFuture<List<T>> fanOut(Collection<String> urls, Type type, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req) {
+		List<CompletableFuture<T>> futures = new ArrayList<>(urls.size());
+		for (String url : urls) {
+			// header 會被補上預設值，每個呼叫各自複製
+			HttpHeaders copy = null;
+			if (header != null) {
+				copy = new HttpHeaders();
+				copy.putAll(header);
+			}
+			futures.add(apiAsync(url, type, httpMethod, copy, req));
+		}
+		return allOf(futures.toArray(new CompletableFuture<?>[0]))
+				.thenApply(v -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+	}
+
+	@Override
+	public CompletableFuture<Void> allOf(CompletableFuture<?>... futures) {
+		CompletableFuture<Void> all = CompletableFuture.allOf(futures);
+		for (CompletableFuture<?> future : futures) {
+			future.whenComplete((result, ex) -> {
+				if (ex != null && all.completeExceptionally(ex)) {
+					for (CompletableFuture<?> other : futures) {
+						other.cancel(true);
+					}
+				}
+			});
+		}
+		return all;
+	}
+
+	/**
+	 * 交給 restAsyncExecutor 完成 future，已滿時直接以例外完成
+	 */
+	private void dispatch(CompletableFuture<?> future, Runnable completion) {
+		try {
+			executor.execute(completion);
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(new RuntimeException(I18nUtil.getMessage("rest.exception"), e));
+		}
+	}
+
+	private SimpleHttpRequest buildRequest(String url, HttpMethod method, HttpHeaders headers, @Nullable Object req) throws IOException {
+		SimpleRequestBuilder builder = SimpleRequestBuilder.create(method.name()).setUri(url);
+		headers.forEach((name, values) -> {
+			// 由 body 設定
+			if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				values.forEach(value -> builder.addHeader(name, value));
+			}
+		});
+		if (req != null) {
+			byte[] body;
+			if (req instanceof byte[]) {
+				body = (byte[]) req;
+			} else if (req instanceof String) {
+				body = ((String) req).getBytes(charsetOf(headers.getContentType()));
+			} else {
+				body = objectMapper.writeValueAsBytes(req);
+			}
+			builder.setBody(body, ContentType.parse(headers.getContentType().toString()));
+		}
+		return builder.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T readBody(SimpleHttpResponse response, Type type) throws IOException {
+		byte[] bytes = response.getBodyBytes();
+		HttpHeaders headers = new HttpHeaders();
+		for (Header h : response.getHeaders()) {
+			headers.add(h.getName(), h.getValue());
+		}
+		Charset charset = charsetOf(headers.getContentType());
+		int status = response.getCode();
+		if (status >= 400) {
+			HttpStatusCode statusCode = HttpStatusCode.valueOf(status);
+			if (statusCode.is4xxClientError()) {
+				throw HttpClientErrorException.create(statusCode, response.getReasonPhrase(), headers, bytes, charset);
+			}
+			throw HttpServerErrorException.create(statusCode, response.getReasonPhrase(), headers, bytes, charset);
+		}
+		if (bytes == null || bytes.length == 0 || type == Void.class) {
+			return null;
+		}
+		if (type == byte[].class) {
+			return (T) bytes;
+		}
+		if (type == String.class) {
+			return (T) new String(bytes, charset);
+		}
+		return objectMapper.readValue(bytes, objectMapper.constructType(type));
+	}
+
+	private Charset charsetOf(@Nullable MediaType mediaType) {
+		return mediaType != null && mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+	}
+}
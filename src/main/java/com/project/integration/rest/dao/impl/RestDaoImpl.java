@@ -6,22 +6,40 @@ package com.project.integration.rest.dao.impl;
 
 import com.bi.base.i18n.util.I18nUtil;
 import com.project.integration.rest.dao.RestDao;
+import com.project.integration.rest.resilience.RestResilience;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.sql.Timestamp;
 import java.util.Arrays;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -39,6 +57,9 @@ public class RestDaoImpl<T> implements RestDao {
 	@Autowired
 	private ObjectMapper objectMapper;
 
+	@Autowired
+	private RestResilience restResilience;
+
 	@Override
 	public <T> T api(String url, Class<T> responseClazz) {
 		return api(url, responseClazz, null, new HttpHeaders(), null);
@@ -99,8 +120,10 @@ public class RestDaoImpl<T> implements RestDao {
 		T responseObject = null;
 		String stackTrace = null;
 		try {
-			restTemplate = restTemplate != null ? restTemplate : this.restTemplate;
-			responseEntity = restTemplate.exchange(url, httpMethod, new HttpEntity<>(req, header), ParameterizedTypeReference.forType(type));
+			RestTemplate template = restTemplate != null ? restTemplate : this.restTemplate;
+			HttpMethod method = httpMethod;
+			HttpEntity<Object> entity = new HttpEntity<>(req, header);
+			responseEntity = restResilience.execute(url, method, () -> template.exchange(url, method, entity, ParameterizedTypeReference.<T> forType(type)));
 			responseObject = responseEntity.getBody();
 			return responseObject;
 		} catch (Exception e) {
@@ -114,4 +137,130 @@ public class RestDaoImpl<T> implements RestDao {
 			}
 		}
 	}
+
+	@Override
+	public long download(String url, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req, OutputStream out) {
+		return execute(url, httpMethod, header, req, MediaType.ALL, response -> {
+			try (InputStream body = response.getBody()) {
+				return body.transferTo(out);
+			}
+		});
+	}
+
+	@Override
+	public long download(String url, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req, Path target) {
+		Path part = target.resolveSibling(target.getFileName() + ".part");
+		try {
+			long size = execute(url, httpMethod, header, req, MediaType.ALL, response -> {
+				try (InputStream body = response.getBody()) {
+					Files.createDirectories(part.toAbsolutePath().getParent());
+					return Files.copy(body, part, StandardCopyOption.REPLACE_EXISTING);
+				}
+			});
+			Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+			return size;
+		} catch (IOException e) {
+			throw new RuntimeException(I18nUtil.getMessage("rest.exception"), e);
+		} finally {
+			try {
+				Files.deleteIfExists(part);
+			} catch (IOException e) {
+				log.warn("Delete {} fail: {}", part, e.getMessage());
+			}
+		}
+	}
+
+	@Override
+	public <T> T stream(String url, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req, JsonParserCallback<T> callback) {
+		return execute(url, httpMethod, header, req, MediaType.APPLICATION_JSON, response -> {
+			try (JsonParser parser = objectMapper.createParser(response.getBody())) {
+				return callback.doWithParser(parser);
+			}
+		});
+	}
+
+	@Override
+	public <E> long forEach(String url, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req, Class<E> elementType,
+			Consumer<? super E> action) {
+		ObjectReader reader = objectMapper.readerFor(elementType);
+		return stream(url, httpMethod, header, req, parser -> {
+			JsonToken token = parser.nextToken();
+			if (token == null) {
+				return 0L;
+			}
+			if (token != JsonToken.START_ARRAY) {
+				throw new IOException("Expected JSON array but was " + token);
+			}
+			long count = 0;
+			while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+				if (token == null) {
+					throw new IOException("Unexpected end of JSON array");
+				}
+				action.accept(reader.readValue(parser));
+				count++;
+			}
+			return count;
+		});
+	}
+
+	/**
+	 * 串流模式共用的呼叫，預設值與 {@link #api} 相同，Accept 未指定時為 accept
+	 */
+	private <R> R execute(String url, @Nullable HttpMethod httpMethod, @Nullable HttpHeaders header, @Nullable Object req, MediaType accept,
+			ResponseExtractor<R> extractor) {
+		HttpMethod method = httpMethod != null ? httpMethod : HttpMethod.POST;
+		HttpHeaders headers = header != null ? header : new HttpHeaders();
+		if (CollectionUtils.isEmpty(headers.getAccept())) {
+			headers.setAccept(Arrays.asList(accept));
+		}
+		if (req != null && headers.getContentType() == null) {
+			headers.setContentType(MediaType.APPLICATION_JSON);
+		}
+		log.debug("REST URL: {}, method: {}, header: {}", url, method, headers);
+		try {
+			return restResilience.guard(url, () -> restTemplate.execute(url, method, request -> writeRequest(request, headers, req), extractor));
+		} catch (Exception e) {
+			throw new RuntimeException(I18nUtil.getMessage("rest.exception"), e);
+		}
+	}
+
+	/**
+	 * 支援串流的 request 直接寫入連線，不經記憶體暫存
+	 */
+	private void writeRequest(ClientHttpRequest request, HttpHeaders headers, @Nullable Object req) throws IOException {
+		request.getHeaders().putAll(headers);
+		if (req == null) {
+			return;
+		}
+		if (req instanceof Path) {
+			request.getHeaders().setContentLength(Files.size((Path) req));
+		} else if (req instanceof Resource && ((Resource) req).isFile()) {
+			request.getHeaders().setContentLength(((Resource) req).contentLength());
+		}
+		if (request instanceof StreamingHttpOutputMessage) {
+			((StreamingHttpOutputMessage) request).setBody(out -> writeBody(StreamUtils.nonClosing(out), headers, req));
+		} else {
+			writeBody(request.getBody(), headers, req);
+		}
+	}
+
+	private void writeBody(OutputStream out, HttpHeaders headers, Object req) throws IOException {
+		if (req instanceof byte[]) {
+			out.write((byte[]) req);
+		} else if (req instanceof String) {
+			MediaType contentType = headers.getContentType();
+			Charset charset = contentType != null && contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+			out.write(((String) req).getBytes(charset));
+		} else if (req instanceof InputStream) {
+			((InputStream) req).transferTo(out);
+		} else if (req instanceof Resource) {
+			try (InputStream is = ((Resource) req).getInputStream()) {
+				is.transferTo(out);
+			}
+		} else if (req instanceof Path) {
+			Files.copy((Path) req, out);
+		} else {
+			objectMapper.writeValue(out, req);
+		}
+	}
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 以最近 N 次呼叫計算失敗率的斷路器
+ * <p>
+ * CLOSED 時失敗率達門檻即轉為 OPEN 並拒絕呼叫，經過 openStateMillis 後轉為 HALF_OPEN 放行少量試探呼叫，
+ * 全部成功才回到 CLOSED，任一失敗則重新 OPEN。
+ *
+ * @since 1.0.0
+ */
+public class RestCircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final int failureRateThreshold;
+
+	private final int minimumNumberOfCalls;
+
+	private final long openStateMillis;
+
+	private final int halfOpenCalls;
+
+	private final LongSupplier clock;
+
+	/** 環狀記錄最近的呼叫結果，true 為失敗 */
+	private final boolean[] window;
+
+	private int index;
+
+	private int size;
+
+	private int failures;
+
+	private State state = State.CLOSED;
+
+	private long openedAt;
+
+	private int halfOpenPermits;
+
+	private int halfOpenSuccesses;
+
+	public RestCircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumNumberOfCalls, long openStateMillis, int halfOpenCalls) {
+		this(failureRateThreshold, slidingWindowSize, minimumNumberOfCalls, openStateMillis, halfOpenCalls, System::currentTimeMillis);
+	}
+
+	/**
+	 * @param clock 目前時間 (毫秒)，測試時可替換
+	 */
+	public RestCircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumNumberOfCalls, long openStateMillis, int halfOpenCalls,
+			LongSupplier clock) {
+		this.failureRateThreshold = failureRateThreshold;
+		this.window = new boolean[Math.max(1, slidingWindowSize)];
+		this.minimumNumberOfCalls = Math.max(1, Math.min(minimumNumberOfCalls, window.length));
+		this.openStateMillis = openStateMillis;
+		this.halfOpenCalls = Math.max(1, halfOpenCalls);
+		this.clock = clock;
+	}
+
+	/**
+	 * 是否允許呼叫，允許後需呼叫 {@link #onSuccess()}、{@link #onFailure()} 或 {@link #release()} 其中之一
+	 */
+	public synchronized boolean tryAcquire() {
+		if (state == State.OPEN) {
+			if (clock.getAsLong() - openedAt < openStateMillis) {
+				return false;
+			}
+			state = State.HALF_OPEN;
+			halfOpenPermits = halfOpenCalls;
+			halfOpenSuccesses = 0;
+		}
+		if (state == State.HALF_OPEN) {
+			if (halfOpenPermits == 0) {
+				return false;
+			}
+			halfOpenPermits--;
+		}
+		return true;
+	}
+
+	/**
+	 * 已允許但未實際呼叫，不計入結果
+	 */
+	public synchronized void release() {
+		if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenSuccesses) {
+			halfOpenPermits++;
+		}
+	}
+
+	public synchronized void onSuccess() {
+		if (state == State.HALF_OPEN) {
+			if (++halfOpenSuccesses >= halfOpenCalls) {
+				reset();
+			}
+		} else if (state == State.CLOSED) {
+			record(false);
+		}
+	}
+
+	public synchronized void onFailure() {
+		if (state == State.HALF_OPEN) {
+			open();
+		} else if (state == State.CLOSED) {
+			record(true);
+			if (size >= minimumNumberOfCalls && failures * 100 >= failureRateThreshold * size) {
+				open();
+			}
+		}
+	}
+
+	public synchronized State getState() {
+		if (state == State.OPEN && clock.getAsLong() - openedAt >= openStateMillis) {
+			return State.HALF_OPEN;
+		}
+		return state;
+	}
+
+	/**
+	 * @return 視窗內的失敗百分比，呼叫數不足 minimumNumberOfCalls 時為 -1
+	 */
+	public synchronized float getFailureRate() {
+		return size < minimumNumberOfCalls ? -1 : failures * 100f / size;
+	}
+
+	private void record(boolean failure) {
+		if (size == window.length) {
+			if (window[index]) {
+				failures--;
+			}
+		} else {
+			size++;
+		}
+		window[index] = failure;
+		if (failure) {
+			failures++;
+		}
+		index = (index + 1) % window.length;
+	}
+
+	private void open() {
+		state = State.OPEN;
+		openedAt = clock.getAsLong();
+		clearWindow();
+	}
+
+	private void reset() {
+		state = State.CLOSED;
+		clearWindow();
+	}
+
+	private void clearWindow() {
+		index = 0;
+		size = 0;
+		failures = 0;
+	}
+}
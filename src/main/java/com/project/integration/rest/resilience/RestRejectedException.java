@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.resilience;
+
+/**
+ * 斷路中或同時呼叫數已達上限，呼叫未送出
+ *
+ * @since 1.0.0
+ */
+public class RestRejectedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String route;
+
+	public RestRejectedException(String route, String message) {
+		super(message + ": " + route);
+		this.route = route;
+	}
+
+	public String getRoute() {
+		return route;
+	}
+}
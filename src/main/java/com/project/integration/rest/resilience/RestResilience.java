@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.resilience;
+
+import com.project.integration.rest.config.RestResilienceProperties;
+import com.project.integration.rest.config.RestResilienceProperties.Policy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * 對外 REST 呼叫的隔離與重試
+ * <p>
+ * 每個路由各自有斷路器與併發上限，一個緩慢的對象只會耗盡自己的配額，不會佔滿共用的連線池。連線錯誤與 5xx 計為失敗；
+ * 冪等方法遇到連線錯誤或 429、502、503、504 時以隨機退避重試，設定 hedge-delay-millis 時逾時未回應會再送出一次。
+ * 有 MeterRegistry 時以 route 為 tag 註冊 rest.circuit.*、rest.bulkhead.available 與 rest.calls 等指標。
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class RestResilience {
+
+	private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT,
+			HttpMethod.DELETE, HttpMethod.TRACE);
+
+	private static final Set<Integer> RETRYABLE_STATUS = Set.of(429, 502, 503, 504);
+
+	/** 目前執行緒上的呼叫是否為重試或 hedge */
+	private static final ThreadLocal<Boolean> REPEATED_ATTEMPT = new ThreadLocal<>();
+
+	private final RestResilienceProperties properties;
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	private final Executor hedgeExecutor;
+
+	private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+	public RestResilience(RestResilienceProperties properties, ObjectProvider<MeterRegistry> meterRegistry,
+			@Qualifier("restHedgeExecutor") Executor hedgeExecutor) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.hedgeExecutor = hedgeExecutor;
+	}
+
+	/**
+	 * 套用斷路器、併發上限、重試與 hedge 執行呼叫
+	 *
+	 * @param url 用於決定路由
+	 * @param httpMethod 只有冪等方法會重試與 hedge
+	 * @param call 實際的呼叫，重試與 hedge 時會執行多次
+	 * @return call 的結果
+	 * @throws RestRejectedException 斷路中或併發已達上限
+	 */
+	public <T> T execute(String url, HttpMethod httpMethod, Supplier<T> call) {
+		if (!properties.isEnabled()) {
+			return call.get();
+		}
+		Route route = route(url);
+		Policy policy = route.policy;
+		boolean idempotent = IDEMPOTENT_METHODS.contains(httpMethod);
+		int maxRetries = idempotent ? policy.getMaxRetries() : 0;
+		for (int attempt = 0;; attempt++) {
+			try {
+				if (idempotent && policy.getHedgeDelayMillis() > 0) {
+					return hedge(route, call, attempt > 0);
+				}
+				route.acquire();
+				return invoke(route, call, attempt > 0);
+			} catch (RuntimeException e) {
+				if (attempt >= maxRetries || !isRetryable(e)) {
+					throw e;
+				}
+				long delay = backoff(policy, attempt);
+				log.debug("[execute] Retry {} {} in {} ms: {}", httpMethod, url, delay, e.getMessage());
+				route.retries.increment();
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 只套用斷路器與併發上限，用於無法重送的串流呼叫
+	 */
+	public <T> T guard(String url, Supplier<T> call) {
+		if (!properties.isEnabled()) {
+			return call.get();
+		}
+		Route route = route(url);
+		route.acquire();
+		return invoke(route, call, false);
+	}
+
+	/**
+	 * 目前的斷路器狀態，尚未呼叫過的路由為 CLOSED
+	 */
+	public RestCircuitBreaker.State getCircuitState(String url) {
+		Route route = routes.get(routeName(url));
+		return route != null ? route.breaker.getState() : RestCircuitBreaker.State.CLOSED;
+	}
+
+	/**
+	 * 目前執行緒上的呼叫是否為重試或 hedge 再送出的一次，快取不應讓這類呼叫等待原本的呼叫
+	 */
+	public static boolean isRepeatedAttempt() {
+		return REPEATED_ATTEMPT.get() != null;
+	}
+
+	/**
+	 * 已取得斷路器與併發許可後執行，結束時歸還
+	 *
+	 * @param repeated 是否為重試或 hedge
+	 */
+	private <T> T invoke(Route route, Supplier<T> call, boolean repeated) {
+		boolean recorded = false;
+		if (repeated) {
+			REPEATED_ATTEMPT.set(Boolean.TRUE);
+		}
+		try {
+			T result = call.get();
+			route.breaker.onSuccess();
+			route.successes.increment();
+			recorded = true;
+			return result;
+		} catch (RuntimeException e) {
+			if (isFailure(e)) {
+				route.breaker.onFailure();
+				route.failures.increment();
+			} else {
+				// 4xx 等錯誤表示對方正常回應
+				route.breaker.onSuccess();
+				route.successes.increment();
+			}
+			recorded = true;
+			throw e;
+		} finally {
+			if (repeated) {
+				REPEATED_ATTEMPT.remove();
+			}
+			if (!recorded) {
+				route.breaker.release();
+			}
+			route.bulkhead.release();
+		}
+	}
+
+	/**
+	 * 先送出的呼叫超過 hedge-delay-millis 未回應時再送出一次，取第一個成功的結果，全部失敗時拋出最後的錯誤。
+	 * 落後的呼叫不會中斷，完成後才歸還許可。restHedgeExecutor 已滿時不 hedge，先送出的呼叫改於呼叫端執行。
+	 */
+	private <T> T hedge(Route route, Supplier<T> call, boolean repeated) {
+		route.acquire();
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		Hedge<T> hedge = new Hedge<>();
+		try {
+			hedgeExecutor.execute(() -> runHedged(route, call, repeated, attributes, hedge));
+		} catch (RejectedExecutionException e) {
+			return invoke(route, call, repeated);
+		}
+		try {
+			return hedge.result.get(route.policy.getHedgeDelayMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			// 先計入再檢查，避免先送出的呼叫在此期間失敗而提前結束
+			hedge.pending.incrementAndGet();
+			if (!hedge.result.isDone() && route.tryAcquire()) {
+				try {
+					hedgeExecutor.execute(() -> runHedged(route, call, true, attributes, hedge));
+					route.hedges.increment();
+				} catch (RejectedExecutionException re) {
+					route.release();
+					hedge.fail(null);
+				}
+			} else {
+				hedge.fail(null);
+			}
+		} catch (InterruptedException e) {
+			throw interrupted(route, e);
+		} catch (ExecutionException e) {
+			// 先送出的呼叫已失敗，於下方統一處理
+		}
+		try {
+			return hedge.result.get();
+		} catch (InterruptedException e) {
+			throw interrupted(route, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * 保留中斷狀態，已送出的呼叫於背景完成後自行歸還許可
+	 */
+	private IllegalStateException interrupted(Route route, InterruptedException e) {
+		Thread.currentThread().interrupt();
+		return new IllegalStateException("Interrupted while waiting for " + route.name, e);
+	}
+
+	private <T> void runHedged(Route route, Supplier<T> call, boolean repeated, RequestAttributes attributes, Hedge<T> hedge) {
+		// 保留呼叫端的 request scope 供追蹤使用
+		RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+		RequestContextHolder.setRequestAttributes(attributes);
+		try {
+			hedge.result.complete(invoke(route, call, repeated));
+		} catch (Throwable e) {
+			hedge.fail(e);
+		} finally {
+			RequestContextHolder.setRequestAttributes(previous);
+		}
+	}
+
+	private boolean isFailure(RuntimeException e) {
+		return e instanceof ResourceAccessException || e instanceof HttpServerErrorException;
+	}
+
+	private boolean isRetryable(RuntimeException e) {
+		if (e instanceof ResourceAccessException) {
+			return true;
+		}
+		return e instanceof HttpStatusCodeException && RETRYABLE_STATUS.contains(((HttpStatusCodeException) e).getStatusCode().value());
+	}
+
+	/**
+	 * full jitter：0 至 min(base * 2^attempt, max) 的隨機值
+	 */
+	private long backoff(Policy policy, int attempt) {
+		long cap = Math.min(policy.getRetryMaxBackoffMillis(), policy.getRetryBackoffMillis() << Math.min(attempt, 20));
+		return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+	}
+
+	private Route route(String url) {
+		String prefix = properties.matchRoute(url);
+		String name = prefix != null ? prefix : origin(url);
+		return routes.computeIfAbsent(name, key -> createRoute(key, properties.resolve(prefix)));
+	}
+
+	private String routeName(String url) {
+		String prefix = properties.matchRoute(url);
+		return prefix != null ? prefix : origin(url);
+	}
+
+	/**
+	 * scheme://host[:port]
+	 */
+	private String origin(String url) {
+		UriComponents uri = UriComponentsBuilder.fromUriString(url).build();
+		if (uri.getHost() == null) {
+			return url;
+		}
+		return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
+	}
+
+	private Route createRoute(String name, Policy policy) {
+		Route route = new Route(name, policy);
+		meterRegistry.ifAvailable(registry -> bindMetrics(registry, route));
+		return route;
+	}
+
+	private void bindMetrics(MeterRegistry registry, Route route) {
+		Gauge.builder("rest.circuit.state", route.breaker, b -> b.getState().ordinal())
+				.description("0=closed, 1=open, 2=half-open")
+				.tag("route", route.name)
+				.register(registry);
+		Gauge.builder("rest.circuit.failure.rate", route.breaker, RestCircuitBreaker::getFailureRate).tag("route", route.name).register(registry);
+		Gauge.builder("rest.bulkhead.available", route.bulkhead, Semaphore::availablePermits).tag("route", route.name).register(registry);
+		FunctionCounter.builder("rest.calls", route.successes, LongAdder::sum).tag("route", route.name).tag("outcome", "success").register(registry);
+		FunctionCounter.builder("rest.calls", route.failures, LongAdder::sum).tag("route", route.name).tag("outcome", "failure").register(registry);
+		FunctionCounter.builder("rest.calls", route.rejected, LongAdder::sum).tag("route", route.name).tag("outcome", "rejected").register(registry);
+		FunctionCounter.builder("rest.retries", route.retries, LongAdder::sum).tag("route", route.name).register(registry);
+		FunctionCounter.builder("rest.hedges", route.hedges, LongAdder::sum).tag("route", route.name).register(registry);
+	}
+
+	/**
+	 * 一個路由的狀態
+	 */
+	private static final class Route {
+
+		private final String name;
+
+		private final Policy policy;
+
+		private final RestCircuitBreaker breaker;
+
+		private final Semaphore bulkhead;
+
+		private final LongAdder successes = new LongAdder();
+
+		private final LongAdder failures = new LongAdder();
+
+		private final LongAdder rejected = new LongAdder();
+
+		private final LongAdder retries = new LongAdder();
+
+		private final LongAdder hedges = new LongAdder();
+
+		Route(String name, Policy policy) {
+			this.name = name;
+			this.policy = policy;
+			this.breaker = new RestCircuitBreaker(policy.getFailureRateThreshold(), policy.getSlidingWindowSize(), policy.getMinimumNumberOfCalls(),
+					policy.getOpenStateMillis(), policy.getHalfOpenCalls());
+			this.bulkhead = new Semaphore(policy.getMaxConcurrentCalls());
+		}
+
+		/**
+		 * 取得斷路器與併發許可
+		 *
+		 * @throws RestRejectedException 無法取得
+		 */
+		void acquire() {
+			if (!breaker.tryAcquire()) {
+				rejected.increment();
+				throw new RestRejectedException(name, "Circuit breaker is open");
+			}
+			boolean permitted;
+			try {
+				permitted = bulkhead.tryAcquire(policy.getMaxWaitMillis(), TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				permitted = false;
+			}
+			if (!permitted) {
+				breaker.release();
+				rejected.increment();
+				throw new RestRejectedException(name, "Too many concurrent calls");
+			}
+		}
+
+		void release() {
+			breaker.release();
+			bulkhead.release();
+		}
+
+		/**
+		 * 不等待取得許可，用於 hedge
+		 */
+		boolean tryAcquire() {
+			if (!bulkhead.tryAcquire()) {
+				return false;
+			}
+			if (!breaker.tryAcquire()) {
+				bulkhead.release();
+				return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * 同一次 hedge 的結果與尚未結束的呼叫數
+	 */
+	private static final class Hedge<T> {
+
+		private final CompletableFuture<T> result = new CompletableFuture<>();
+
+		private final AtomicInteger pending = new AtomicInteger(1);
+
+		private volatile Throwable error;
+
+		/**
+		 * 一個呼叫失敗或未送出，全部結束時以最後的錯誤完成
+		 *
+		 * @param e 失敗原因，未送出時為 null
+		 */
+		void fail(Throwable e) {
+			if (e != null) {
+				error = e;
+			}
+			if (pending.decrementAndGet() == 0 && error != null) {
+				result.completeExceptionally(error);
+			}
+		}
+	}
+}
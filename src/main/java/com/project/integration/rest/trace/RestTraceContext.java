@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.trace;
+
+import com.project.frame.model.RestTracer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.MediaType;
+
+/**
+ * 目前執行緒上一次 RestTemplate 呼叫的擷取資訊
+ * <p>
+ * 由 RestAspect 開始與結束，{@link RestTraceRequestFactory} 於 body 寫出、讀取時累計位元組數並保留開頭 preview-bytes 的內容，
+ * 不保存完整 body。非文字的 Content-Type 只記錄大小。
+ *
+ * @since 1.0.0
+ */
+public final class RestTraceContext {
+
+	private static final ThreadLocal<RestTraceContext> CURRENT = new ThreadLocal<>();
+
+	private static final String ELLIPSIS = "…";
+
+	private final Capture request;
+
+	private final Capture response;
+
+	private MediaType requestType;
+
+	private MediaType responseType;
+
+	private Integer status;
+
+	private RestTraceContext(int previewBytes) {
+		this.request = new Capture(previewBytes);
+		this.response = new Capture(previewBytes);
+	}
+
+	public static RestTraceContext begin(int previewBytes) {
+		RestTraceContext context = new RestTraceContext(previewBytes);
+		CURRENT.set(context);
+		return context;
+	}
+
+	public static RestTraceContext current() {
+		return CURRENT.get();
+	}
+
+	public void end() {
+		CURRENT.remove();
+	}
+
+	public Integer getStatus() {
+		return status;
+	}
+
+	/**
+	 * 寫入大小與 preview，未經過 {@link RestTraceRequestFactory} 時不變更
+	 */
+	public void applyTo(RestTracer tracer) {
+		if (status != null) {
+			tracer.setStatus(status);
+		}
+		if (request.touched) {
+			tracer.setRequestBytes(request.bytes);
+			tracer.setRequestPreview(request.preview(requestType));
+		}
+		if (response.touched) {
+			tracer.setResponseBytes(response.bytes);
+			tracer.setResponsePreview(response.preview(responseType));
+		}
+	}
+
+	Capture getRequest() {
+		return request;
+	}
+
+	Capture getResponse() {
+		return response;
+	}
+
+	void setRequestType(MediaType requestType) {
+		this.requestType = requestType;
+	}
+
+	void setResponseType(MediaType responseType) {
+		this.responseType = responseType;
+	}
+
+	void setStatus(Integer status) {
+		this.status = status;
+	}
+
+	private static boolean isText(MediaType type) {
+		if (type == null) {
+			return false;
+		}
+		String subtype = type.getSubtype();
+		return "text".equals(type.getType()) || subtype.contains("json") || subtype.contains("xml")
+				|| MediaType.APPLICATION_FORM_URLENCODED.includes(type);
+	}
+
+	/**
+	 * 位元組計數與開頭內容
+	 */
+	static final class Capture {
+
+		private final byte[] head;
+
+		private int headLength;
+
+		private long bytes;
+
+		private boolean touched;
+
+		Capture(int previewBytes) {
+			this.head = new byte[Math.max(0, previewBytes)];
+		}
+
+		void touch() {
+			touched = true;
+		}
+
+		void update(int b) {
+			touched = true;
+			if (headLength < head.length) {
+				head[headLength++] = (byte) b;
+			}
+			bytes++;
+		}
+
+		void update(byte[] b, int off, int len) {
+			touched = true;
+			int copy = Math.min(len, head.length - headLength);
+			if (copy > 0) {
+				System.arraycopy(b, off, head, headLength, copy);
+				headLength += copy;
+			}
+			bytes += len;
+		}
+
+		String preview(MediaType type) {
+			if (headLength == 0 || !isText(type)) {
+				return null;
+			}
+			Charset charset = type.getCharset() != null ? type.getCharset() : StandardCharsets.UTF_8;
+			String text = new String(head, 0, headLength, charset);
+			return bytes > headLength ? text + ELLIPSIS : text;
+		}
+	}
+}
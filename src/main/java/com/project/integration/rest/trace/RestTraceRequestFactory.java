@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.rest.trace;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * 於 request/response body 經過時記錄大小與開頭內容
+ * <p>
+ * 只在 {@link RestTraceContext#current()} 存在時包裝，body 仍直接串流，不另外暫存。
+ *
+ * @since 1.0.0
+ */
+public class RestTraceRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+
+	public RestTraceRequestFactory(ClientHttpRequestFactory requestFactory) {
+		super(requestFactory);
+	}
+
+	@Override
+	protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, ClientHttpRequestFactory requestFactory) throws IOException {
+		ClientHttpRequest request = requestFactory.createRequest(uri, httpMethod);
+		RestTraceContext context = RestTraceContext.current();
+		if (context == null) {
+			return request;
+		}
+		if (request instanceof StreamingHttpOutputMessage) {
+			return new StreamingTracingRequest(request, context);
+		}
+		return new TracingRequest(request, context);
+	}
+
+	private static class TracingRequest implements ClientHttpRequest {
+
+		protected final ClientHttpRequest delegate;
+
+		protected final RestTraceContext context;
+
+		TracingRequest(ClientHttpRequest delegate, RestTraceContext context) {
+			this.delegate = delegate;
+			this.context = context;
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return delegate.getMethod();
+		}
+
+		@Override
+		public URI getURI() {
+			return delegate.getURI();
+		}
+
+		@Override
+		public Map<String, Object> getAttributes() {
+			return delegate.getAttributes();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return delegate.getHeaders();
+		}
+
+		@Override
+		public OutputStream getBody() throws IOException {
+			return capture(delegate.getBody());
+		}
+
+		protected OutputStream capture(OutputStream out) {
+			context.setRequestType(getHeaders().getContentType());
+			context.getRequest().touch();
+			return new CaptureOutputStream(out, context.getRequest());
+		}
+
+		@Override
+		public ClientHttpResponse execute() throws IOException {
+			ClientHttpResponse response = delegate.execute();
+			context.setStatus(response.getStatusCode().value());
+			context.setResponseType(response.getHeaders().getContentType());
+			return new TracingResponse(response, context.getResponse());
+		}
+	}
+
+	private static class StreamingTracingRequest extends TracingRequest implements StreamingHttpOutputMessage {
+
+		StreamingTracingRequest(ClientHttpRequest delegate, RestTraceContext context) {
+			super(delegate, context);
+		}
+
+		@Override
+		public void setBody(Body body) {
+			((StreamingHttpOutputMessage) delegate).setBody(new Body() {
+
+				@Override
+				public void writeTo(OutputStream outputStream) throws IOException {
+					body.writeTo(capture(outputStream));
+				}
+
+				@Override
+				public boolean repeatable() {
+					return body.repeatable();
+				}
+			});
+		}
+	}
+
+	private static class TracingResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse delegate;
+
+		private final RestTraceContext.Capture capture;
+
+		private InputStream body;
+
+		TracingResponse(ClientHttpResponse delegate, RestTraceContext.Capture capture) {
+			this.delegate = delegate;
+			this.capture = capture;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return delegate.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return delegate.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return delegate.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (body == null) {
+				capture.touch();
+				body = new CaptureInputStream(delegate.getBody(), capture);
+			}
+			return body;
+		}
+
+		@Override
+		public void close() {
+			delegate.close();
+		}
+	}
+
+	private static class CaptureOutputStream extends FilterOutputStream {
+
+		private final RestTraceContext.Capture capture;
+
+		CaptureOutputStream(OutputStream out, RestTraceContext.Capture capture) {
+			super(out);
+			this.capture = capture;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			capture.update(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			capture.update(b, off, len);
+		}
+	}
+
+	private static class CaptureInputStream extends FilterInputStream {
+
+		private final RestTraceContext.Capture capture;
+
+		CaptureInputStream(InputStream in, RestTraceContext.Capture capture) {
+			super(in);
+			this.capture = capture;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b >= 0) {
+				capture.update(b);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = in.read(b, off, len);
+			if (n > 0) {
+				capture.update(b, off, n);
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			// 以讀取代替略過，大小才會計入
+			byte[] buffer = new byte[(int) Math.min(n, 8192)];
+			long skipped = 0;
+			while (skipped < n) {
+				int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+				if (read < 0) {
+					break;
+				}
+				skipped += read;
+			}
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+}
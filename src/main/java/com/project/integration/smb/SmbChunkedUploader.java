@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.smb;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import jcifs.CIFSContext;
+import jcifs.smb.SmbFile;
+import jcifs.smb.SmbRandomAccessFile;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+/**
+ * 大檔分段續傳至 SMB
+ *
+ * <p>先寫入遠端暫存檔，每段寫入完成後將位置記錄於本機 journal；中斷時自動從最後完成的位置重試，超過重試次數時保留 journal，
+ * 之後以相同參數再次呼叫即從該位置續傳。全部寫入後改名為正式檔名並刪除 journal。同一遠端檔案同時只允許一個上傳，
+ * 以 journal 目錄中的 lock 檔 (跨 process) 控制。有 MeterRegistry 時以 server 為 tag 記錄 smb.upload.bytes 與 smb.upload 耗時。
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class SmbChunkedUploader {
+
+  private static final String JOURNAL_SUFFIX = ".journal";
+
+  private static final String LOCK_SUFFIX = ".lock";
+
+  private final SmbService smbService;
+  private final SmbProperties smbProperties;
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+
+  public SmbChunkedUploader(
+      SmbService smbService,
+      SmbProperties smbProperties,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    this.smbService = smbService;
+    this.smbProperties = smbProperties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * 上傳本機檔案至伺服器設定的遠端目錄
+   *
+   * @param serverName 伺服器名稱
+   * @param fileName 遠端檔名
+   * @param localFile 本機檔案，續傳期間不可變動
+   * @return 本次實際傳輸的位元組數，不含先前已完成的部分
+   * @throws IOException 超過重試次數仍失敗，journal 保留供下次續傳；或同一遠端檔案正在上傳
+   */
+  public long upload(String serverName, String fileName, Path localFile) throws IOException {
+    CIFSContext context = smbService.getContext(serverName);
+    SmbProperties.ServerConfig config = smbService.getServerConfig(serverName);
+    String smbUrl = config.getBaseSmbUrl() + "/" + fileName;
+
+    // 同一遠端檔案共用暫存檔，不論本機檔案為何皆互斥
+    Path lockPath = journalBase().resolve(key(serverName + "|" + smbUrl) + LOCK_SUFFIX);
+    Files.createDirectories(lockPath.getParent());
+    try (FileChannel lockChannel =
+        FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      // 關閉 channel 時釋放
+      tryLock(lockChannel, smbUrl);
+      return upload(serverName, context, smbUrl, localFile);
+    }
+  }
+
+  private void tryLock(FileChannel channel, String smbUrl) throws IOException {
+    FileLock lock;
+    try {
+      lock = channel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      // 同一 JVM 已持有
+      lock = null;
+    }
+    if (lock == null) {
+      throw new IOException("Upload already in progress: " + smbUrl);
+    }
+  }
+
+  private long upload(String serverName, CIFSContext context, String smbUrl, Path localFile)
+      throws IOException {
+    SmbProperties.Upload settings = smbProperties.getUpload();
+    String tempUrl = smbUrl + settings.getTempSuffix();
+
+    Journal journal = new Journal(journalPath(serverName, smbUrl, localFile), localFile);
+    long start = System.nanoTime();
+    long offset = journal.load();
+    long resumedFrom = offset;
+    boolean success = false;
+    try {
+      for (int attempt = 0; ; attempt++) {
+        try {
+          offset = transfer(serverName, context, tempUrl, localFile, offset, journal);
+          break;
+        } catch (IOException e) {
+          if (attempt >= settings.getMaxRetries()) {
+            throw e;
+          }
+          log.warn(
+              "[upload] Upload {} interrupted at {}, retry {}: {}",
+              smbUrl,
+              journal.getOffset(),
+              attempt + 1,
+              e.getMessage());
+          backoff(settings.getRetryBackoffMillis() * (attempt + 1));
+          offset = journal.getOffset();
+        }
+      }
+      try (SmbFile temp = new SmbFile(tempUrl, context);
+          SmbFile target = new SmbFile(smbUrl, context)) {
+        temp.renameTo(target, true);
+      }
+      journal.delete();
+      success = true;
+      log.info(
+          "[upload] File uploaded to server {}: {}, resumed from {}", serverName, smbUrl, resumedFrom);
+      return journal.written;
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      String outcome = success ? "success" : "failure";
+      meterRegistry.ifAvailable(
+          registry ->
+              Timer.builder("smb.upload")
+                  .tag("server", serverName)
+                  .tag("outcome", outcome)
+                  .register(registry)
+                  .record(elapsed, TimeUnit.NANOSECONDS));
+    }
+  }
+
+  /**
+   * 從 offset 開始逐段寫入暫存檔
+   *
+   * @return 寫入完成後的位置，即檔案大小
+   */
+  private long transfer(
+      String serverName,
+      CIFSContext context,
+      String tempUrl,
+      Path localFile,
+      long offset,
+      Journal journal)
+      throws IOException {
+    byte[] buffer = new byte[smbProperties.getUpload().getChunkSize()];
+    MeterRegistry registry = meterRegistry.getIfAvailable();
+    Counter bytes =
+        registry == null
+            ? null
+            : Counter.builder("smb.upload.bytes")
+                .tag("server", serverName)
+                .baseUnit("bytes")
+                .register(registry);
+    try (SmbFile temp = new SmbFile(tempUrl, context);
+        FileChannel source = FileChannel.open(localFile, StandardOpenOption.READ)) {
+      long position = offset;
+      if (position > 0 && (!temp.exists() || temp.length() < position)) {
+        log.warn("[transfer] Temp file {} shorter than journal, restart", tempUrl);
+        position = 0;
+      }
+      try (SmbRandomAccessFile raf = temp.openRandomAccess("rw")) {
+        // 捨棄上次中斷時已送出但未記錄的資料
+        raf.setLength(position);
+        raf.seek(position);
+        journal.commit(position);
+        int read;
+        while ((read = readChunk(source, buffer, position)) > 0) {
+          raf.write(buffer, 0, read);
+          position += read;
+          journal.commit(position);
+          journal.written += read;
+          if (bytes != null) {
+            bytes.increment(read);
+          }
+        }
+      }
+      if (position != source.size()) {
+        throw new IOException("Local file changed during upload: " + localFile);
+      }
+      return position;
+    }
+  }
+
+  /** 讀滿一段或讀到檔尾 */
+  private int readChunk(FileChannel source, byte[] buffer, long position) throws IOException {
+    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+    while (byteBuffer.hasRemaining()) {
+      int n = source.read(byteBuffer, position + byteBuffer.position());
+      if (n < 0) {
+        break;
+      }
+    }
+    return byteBuffer.position();
+  }
+
+  private void backoff(long millis) throws IOException {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Upload retry interrupted");
+    }
+  }
+
+  private Path journalPath(String serverName, String smbUrl, Path localFile) {
+    String key = serverName + "|" + smbUrl + "|" + localFile.toAbsolutePath().normalize();
+    return journalBase().resolve(key(key) + JOURNAL_SUFFIX);
+  }
+
+  private Path journalBase() {
+    String dir = smbProperties.getUpload().getJournalDir();
+    return StringUtils.isBlank(dir)
+        ? Paths.get(System.getProperty("java.io.tmpdir"), "smb-upload-journal")
+        : Paths.get(dir);
+  }
+
+  private static String key(String text) {
+    return UUID.nameUUIDFromBytes(text.getBytes(StandardCharsets.UTF_8)).toString();
+  }
+
+  /** 本機記錄的已寫入位置，本機檔案大小或修改時間不同時視為新上傳 */
+  private static final class Journal {
+
+    private final Path path;
+    private final Path localFile;
+    private long size;
+    private long modified;
+    private long offset;
+
+    /** 本次呼叫實際寫入的位元組數 */
+    private long written;
+
+    Journal(Path path, Path localFile) {
+      this.path = path;
+      this.localFile = localFile;
+    }
+
+    long load() throws IOException {
+      size = Files.size(localFile);
+      modified = Files.getLastModifiedTime(localFile).toMillis();
+      offset = 0;
+      if (Files.isRegularFile(path)) {
+        Properties props = new Properties();
+        try (InputStream is = Files.newInputStream(path)) {
+          props.load(is);
+        }
+        if (String.valueOf(size).equals(props.getProperty("size"))
+            && String.valueOf(modified).equals(props.getProperty("modified"))) {
+          offset = Math.min(Long.parseLong(props.getProperty("offset", "0")), size);
+        }
+      }
+      return offset;
+    }
+
+    long getOffset() {
+      return offset;
+    }
+
+    /** 先寫入暫存檔再改名，中斷時不會留下不完整的 journal */
+    void commit(long offset) throws IOException {
+      this.offset = offset;
+      Properties props = new Properties();
+      props.setProperty("local", localFile.toAbsolutePath().toString());
+      props.setProperty("size", String.valueOf(size));
+      props.setProperty("modified", String.valueOf(modified));
+      props.setProperty("offset", String.valueOf(offset));
+      Files.createDirectories(path.getParent());
+      Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+      try (OutputStream os = Files.newOutputStream(temp)) {
+        props.store(os, null);
+      }
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void delete() throws IOException {
+      Files.deleteIfExists(path);
+    }
+  }
+}
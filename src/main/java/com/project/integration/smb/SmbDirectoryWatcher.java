@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.smb;
+
+import jakarta.annotation.PreDestroy;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import jcifs.CIFSContext;
+import jcifs.CIFSException;
+import jcifs.FileNotifyInformation;
+import jcifs.SmbWatchHandle;
+import jcifs.smb.SmbFile;
+import jcifs.smb.SmbUnsupportedOperationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * 監看 SMB 目錄的新檔案
+ *
+ * <p>以 SMB2 change notify 取得檔名異動，伺服器不支援或 smb.watch.notify-enabled=false 時改為定期列目錄，
+ * 與上次的檔名、大小、修改時間比對。異動的檔案需大小與修改時間維持 smb.watch.debounce-millis 不變才發出事件，
+ * 同一大小與修改時間只發出一次；事件交由 smbWatchExecutor 呼叫 handler，佇列滿時重新列為待處理。只監看該目錄第一層。
+ * 每個監看有各自的排程執行緒，緩慢的共用資料夾不會延遲其他監看。
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class SmbDirectoryWatcher {
+
+  private static final int NOTIFY_FILTER =
+      FileNotifyInformation.FILE_NOTIFY_CHANGE_FILE_NAME
+          | FileNotifyInformation.FILE_NOTIFY_CHANGE_SIZE
+          | FileNotifyInformation.FILE_NOTIFY_CHANGE_LAST_WRITE;
+
+  private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+  private final SmbService smbService;
+  private final SmbProperties smbProperties;
+  private final Executor smbWatchExecutor;
+  private final Set<Watch> watches = ConcurrentHashMap.newKeySet();
+
+  public SmbDirectoryWatcher(
+      SmbService smbService,
+      SmbProperties smbProperties,
+      @Qualifier("smbWatchExecutor") Executor smbWatchExecutor) {
+    this.smbService = smbService;
+    this.smbProperties = smbProperties;
+    this.smbWatchExecutor = smbWatchExecutor;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    watches.forEach(Watch::close);
+  }
+
+  /**
+   * 開始監看目錄
+   *
+   * @param serverName 伺服器名稱
+   * @param directoryUrl 目錄的 SMB URL
+   * @param handler 檔案事件處理
+   * @return close 後停止監看
+   * @throws IOException 無法列出目錄
+   */
+  public Watch watch(String serverName, String directoryUrl, SmbFileEventHandler handler)
+      throws IOException {
+    CIFSContext context = smbService.getContext(serverName);
+    String dirUrl = directoryUrl.endsWith("/") ? directoryUrl : directoryUrl + "/";
+    Watch watch = new Watch(serverName, new SmbFile(dirUrl, context), handler);
+    try {
+      watch.start();
+    } catch (IOException | RuntimeException e) {
+      watch.close();
+      throw e;
+    }
+    watches.add(watch);
+    return watch;
+  }
+
+  /** 一個目錄的監看 */
+  public final class Watch implements Closeable {
+
+    private final String serverName;
+    private final SmbFile directory;
+    private final SmbFileEventHandler handler;
+    private final SmbProperties.Watch settings = smbProperties.getWatch();
+
+    /** 已發出事件的檔名與 size:mtime，用於去除重複 */
+    private final Map<String, String> emitted = new ConcurrentHashMap<>();
+
+    /** 等待寫入完成的檔案 */
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    private final String threadName = "smb-watch-" + SEQUENCE.incrementAndGet();
+
+    /** 檢查待處理檔案與定期列目錄，會呼叫阻塞的 SMB 操作 */
+    private final ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, threadName + "-scheduler");
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    private volatile boolean closed;
+    private volatile SmbWatchHandle handle;
+    private Thread notifyThread;
+    private ScheduledFuture<?> debounceTask;
+    private volatile ScheduledFuture<?> pollTask;
+
+    private Watch(String serverName, SmbFile directory, SmbFileEventHandler handler) {
+      this.serverName = serverName;
+      this.directory = directory;
+      this.handler = handler;
+    }
+
+    public String getDirectoryUrl() {
+      return directory.getPath();
+    }
+
+    /** 是否以定期列目錄方式監看 */
+    public boolean isPolling() {
+      return pollTask != null;
+    }
+
+    private void start() throws IOException {
+      Map<String, String> snapshot = list();
+      if (settings.isEmitExisting()) {
+        snapshot.keySet().forEach(this::markPending);
+      } else {
+        emitted.putAll(snapshot);
+      }
+      long checkInterval = Math.max(settings.getDebounceMillis() / 2, 100);
+      debounceTask =
+          scheduler.scheduleWithFixedDelay(
+              this::checkPending, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+      if (settings.isNotifyEnabled()) {
+        notifyThread = new Thread(this::notifyLoop, threadName);
+        notifyThread.setDaemon(true);
+        notifyThread.start();
+      } else {
+        startPolling();
+      }
+    }
+
+    private synchronized void startPolling() {
+      if (closed || pollTask != null) {
+        return;
+      }
+      long interval = settings.getPollIntervalMillis();
+      pollTask =
+          scheduler.scheduleWithFixedDelay(this::rescan, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void notifyLoop() {
+      while (!closed) {
+        try (SmbWatchHandle h = directory.watch(NOTIFY_FILTER, false)) {
+          handle = h;
+          while (!closed) {
+            List<FileNotifyInformation> changes = h.watch();
+            if (changes == null || changes.isEmpty()) {
+              // 異動過多時伺服器不回傳明細
+              rescan();
+              continue;
+            }
+            for (FileNotifyInformation change : changes) {
+              onChange(change);
+            }
+          }
+        } catch (CIFSException | RuntimeException e) {
+          if (closed) {
+            return;
+          }
+          if (e instanceof SmbUnsupportedOperationException) {
+            log.warn(
+                "[notifyLoop] Change notify unavailable for {}, fall back to polling: {}",
+                directory.getPath(),
+                e.getMessage());
+            startPolling();
+            return;
+          }
+          log.warn("[notifyLoop] Watch {} interrupted: {}", directory.getPath(), e.getMessage());
+          try {
+            Thread.sleep(settings.getRetryDelayMillis());
+          } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+          // 斷線或尚未建立監看期間的異動沒有通知
+          rescan();
+        } finally {
+          handle = null;
+        }
+      }
+    }
+
+    private void onChange(FileNotifyInformation change) {
+      String name = change.getFileName();
+      if (name == null || name.contains("\\")) {
+        return;
+      }
+      int action = change.getAction();
+      if (action == FileNotifyInformation.FILE_ACTION_REMOVED
+          || action == FileNotifyInformation.FILE_ACTION_REMOVED_BY_DELETE
+          || action == FileNotifyInformation.FILE_ACTION_RENAMED_OLD_NAME) {
+        pending.remove(name);
+        emitted.remove(name);
+      } else {
+        markPending(name);
+      }
+    }
+
+    /** 列出目錄並與已發出的事件比對 */
+    private void rescan() {
+      if (closed) {
+        return;
+      }
+      try {
+        Map<String, String> snapshot = list();
+        emitted.keySet().retainAll(snapshot.keySet());
+        pending.keySet().retainAll(snapshot.keySet());
+        snapshot.forEach(
+            (name, signature) -> {
+              if (!signature.equals(emitted.get(name))) {
+                markPending(name);
+              }
+            });
+      } catch (IOException | RuntimeException e) {
+        // 例外會停止排程，只記錄
+        log.warn("[rescan] List {} fail: {}", directory.getPath(), e.getMessage());
+      }
+    }
+
+    private void markPending(String name) {
+      pending.putIfAbsent(name, new Pending());
+    }
+
+    /** 大小與修改時間維持不變達 debounce 時間才發出事件 */
+    private void checkPending() {
+      long now = System.currentTimeMillis();
+      for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+        String name = entry.getKey();
+        Pending state = entry.getValue();
+        try (SmbFile file = new SmbFile(directory, name)) {
+          if (!file.exists() || file.isDirectory()) {
+            pending.remove(name);
+            continue;
+          }
+          long size = file.length();
+          long lastModified = file.lastModified();
+          String signature = size + ":" + lastModified;
+          if (!signature.equals(state.signature)) {
+            state.signature = signature;
+            state.since = now;
+          } else if (now - state.since >= settings.getDebounceMillis()) {
+            pending.remove(name);
+            if (!signature.equals(emitted.put(name, signature))) {
+              dispatch(new SmbFileEvent(serverName, file.getPath(), name, size, lastModified));
+            }
+          }
+        } catch (IOException | RuntimeException e) {
+          log.warn("[checkPending] Check {} fail: {}", name, e.getMessage());
+        }
+      }
+    }
+
+    private void dispatch(SmbFileEvent event) {
+      String signature = event.getSize() + ":" + event.getLastModified();
+      try {
+        smbWatchExecutor.execute(
+            () -> {
+              try {
+                handler.onFileArrived(event);
+              } catch (Exception e) {
+                log.error("[dispatch] Handle {} fail: {}", event.getUrl(), e.getMessage(), e);
+                // 下次異動或重新列目錄時再處理
+                emitted.remove(event.getName(), signature);
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        log.warn("[dispatch] Handler busy, retry {} later", event.getUrl());
+        // 重新等待 debounce 後再發出
+        emitted.remove(event.getName(), signature);
+        markPending(event.getName());
+      }
+    }
+
+    private Map<String, String> list() throws IOException {
+      Map<String, String> snapshot = new HashMap<>();
+      for (SmbFile file : directory.listFiles()) {
+        try (file) {
+          if (!file.isDirectory()) {
+            snapshot.put(file.getName(), file.length() + ":" + file.lastModified());
+          }
+        }
+      }
+      return snapshot;
+    }
+
+    @Override
+    public synchronized void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      watches.remove(this);
+      if (debounceTask != null) {
+        debounceTask.cancel(false);
+      }
+      if (pollTask != null) {
+        pollTask.cancel(false);
+      }
+      scheduler.shutdownNow();
+      SmbWatchHandle h = handle;
+      if (h != null) {
+        try {
+          h.close();
+        } catch (CIFSException e) {
+          log.debug("[close] Close watch handle fail: {}", e.getMessage());
+        }
+      }
+      if (notifyThread != null) {
+        notifyThread.interrupt();
+      }
+      directory.close();
+    }
+  }
+
+  private static final class Pending {
+
+    private String signature;
+    private long since;
+  }
+}
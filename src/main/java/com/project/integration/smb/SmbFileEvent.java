@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.smb;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** 監看目錄中新增或更新完成的檔案 */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmbFileEvent {
+
+  private String serverName;
+
+  /** 檔案的 SMB URL */
+  private String url;
+
+  private String name;
+
+  private long size;
+
+  private long lastModified;
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.smb;
+
+import com.project.integration.kafka.producer.KafkaProducer;
+
+/**
+ * 處理 {@link SmbDirectoryWatcher} 發出的檔案事件，例如以 {@link SmbService#openInputStream} 讀取後交給
+ * CsvUploadHandler 匯入，或轉送至 Kafka
+ *
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface SmbFileEventHandler {
+
+  void onFileArrived(SmbFileEvent event) throws Exception;
+
+  /** 將事件送至 Kafka topic */
+  static SmbFileEventHandler kafka(KafkaProducer producer, String topic) {
+    return event -> producer.send(topic, event);
+  }
+}
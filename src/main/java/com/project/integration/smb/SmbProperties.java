@@ -13,6 +13,12 @@ public class SmbProperties {
 
   private Map<String, ServerConfig> servers = new HashMap<>();
 
+  private Client client = new Client();
+
+  private Upload upload = new Upload();
+
+  private Watch watch = new Watch();
+
   @Data
   public static class ServerConfig {
     private String url;
@@ -25,4 +31,62 @@ public class SmbProperties {
       return String.format("smb://%s/%s", url, normalizedPath);
     }
   }
+
+  /** 所有伺服器共用的 jcifs 連線設定 */
+  @Data
+  public static class Client {
+    private String minVersion = "SMB202";
+    private String maxVersion = "SMB311";
+
+    /** 連線閒置多久後關閉，持有共用資料夾連線時不會因閒置關閉 */
+    private int soTimeoutMillis = 300000;
+
+    private int connTimeoutMillis = 10000;
+    private int responseTimeoutMillis = 30000;
+
+    /** 讀取檔案的緩衝大小，越大則往返次數越少 */
+    private int bufferSize = 1024 * 1024;
+
+    /** 是否對每台伺服器保持一個共用資料夾連線，避免批次作業間重新建立 session */
+    private boolean keepAlive = true;
+
+    /** 共用資料夾連線失敗後，多久內不再嘗試 */
+    private long keepAliveRetryMillis = 60000;
+  }
+
+  /** 可續傳分段上傳設定 */
+  @Data
+  public static class Upload {
+    /** 每段寫入大小，每段完成後記錄一次已寫入位置 */
+    private int chunkSize = 8 * 1024 * 1024;
+
+    /** 同一次上傳中斷後自動續傳的次數 */
+    private int maxRetries = 3;
+
+    private long retryBackoffMillis = 1000;
+
+    /** 記錄已寫入位置的目錄，未設定時使用系統暫存目錄下的 smb-upload-journal */
+    private String journalDir;
+
+    /** 上傳中的遠端暫存檔副檔名，完成後改名 */
+    private String tempSuffix = ".uploading";
+  }
+
+  /** 目錄監看設定 */
+  @Data
+  public static class Watch {
+    /** 是否使用 SMB2 change notify，關閉或伺服器不支援時改為定期列目錄 */
+    private boolean notifyEnabled = true;
+
+    private long pollIntervalMillis = 10000;
+
+    /** 檔案大小與修改時間維持不變多久後才視為寫入完成 */
+    private long debounceMillis = 3000;
+
+    /** change notify 中斷後重新連線的間隔 */
+    private long retryDelayMillis = 5000;
+
+    /** 開始監看時目錄中已存在的檔案是否也發出事件 */
+    private boolean emitExisting = false;
+  }
 }
@@ -4,18 +4,38 @@
  */
 package com.project.integration.smb;
 
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import jcifs.CIFSContext;
+import jcifs.smb.SmbException;
 import jcifs.smb.SmbFile;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -25,10 +45,30 @@ public class SmbService {
 
   private final Map<String, CIFSContext> cifsContextMap;
   private final SmbProperties smbProperties;
+  private final Executor smbExecutor;
 
-  public SmbService(Map<String, CIFSContext> cifsContextMap, SmbProperties smbProperties) {
+  /** 每台伺服器保持開啟的共用資料夾，讓 transport 與 session 不因閒置關閉 */
+  private final Map<String, SmbFile> shareRoots = new ConcurrentHashMap<>();
+
+  /** 正在開啟共用資料夾的伺服器，其他執行緒不等待、不重複開啟 */
+  private final Set<String> openingShareRoots = ConcurrentHashMap.newKeySet();
+
+  /** 共用資料夾開啟失敗的伺服器與下次可重試的時間 */
+  private final Map<String, Long> shareRootRetryAt = new ConcurrentHashMap<>();
+
+  public SmbService(
+      Map<String, CIFSContext> cifsContextMap,
+      SmbProperties smbProperties,
+      @Qualifier("smbExecutor") Executor smbExecutor) {
     this.cifsContextMap = cifsContextMap;
     this.smbProperties = smbProperties;
+    this.smbExecutor = smbExecutor;
+  }
+
+  @PreDestroy
+  public void closeSessions() {
+    shareRoots.values().forEach(SmbFile::close);
+    shareRoots.clear();
   }
 
   private String buildSmbPath(String basePath, String... components) {
@@ -45,10 +85,7 @@ public class SmbService {
   }
 
   public File readFileFromSmb(String serverName, String smbBasePath, String... smbPathComponents) {
-    CIFSContext context = cifsContextMap.get(serverName);
-    if (context == null) {
-      throw new IllegalArgumentException("No CIFSContext found for server: " + serverName);
-    }
+    CIFSContext context = getContext(serverName);
     String smbUrl = buildSmbPath(smbBasePath, smbPathComponents);
     try (SmbFile smbFile = new SmbFile(smbUrl, context); ) {
       String uuid = UUID.randomUUID().toString();
@@ -57,7 +94,7 @@ public class SmbService {
       Path tempFile = Files.createTempFile("smb_", uuid);
       Path targetFile = tempFile.resolveSibling(smbFile.getName());
       try (InputStream smbInputStream = smbFile.getInputStream()) {
-        Files.copy(smbInputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        copyToChannel(smbInputStream, tempFile);
       }
 
       Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
@@ -71,10 +108,7 @@ public class SmbService {
 
   public void deleteFileFromSmb(
       String serverName, String smbBasePath, String... smbPathComponents) {
-    CIFSContext context = cifsContextMap.get(serverName);
-    if (context == null) {
-      throw new IllegalArgumentException("No CIFSContext found for server: " + serverName);
-    }
+    CIFSContext context = getContext(serverName);
     String smbUrl = buildSmbPath(smbBasePath, smbPathComponents);
     try (SmbFile smbFile = new SmbFile(smbUrl, context)) {
       if (smbFile.exists()) {
@@ -91,21 +125,20 @@ public class SmbService {
 
   public void clearDirectoryFromSmb(
       String serverName, String smbBasePath, String... smbPathComponents) {
-    CIFSContext context = cifsContextMap.get(serverName);
-    if (context == null) {
-      throw new IllegalArgumentException("No CIFSContext found for server: " + serverName);
-    }
+    CIFSContext context = getContext(serverName);
 
     String smbUrl = buildSmbPath(smbBasePath, smbPathComponents);
     log.info("[clearDirectoryFromSmb] Clearing directory: {}", smbUrl);
     try (SmbFile smbDir = new SmbFile(smbUrl, context)) {
       if (smbDir.exists() && smbDir.isDirectory()) {
         log.info("[clearDirectoryFromSmb] Directory exists: {}", smbUrl);
-        for (SmbFile file : smbDir.listFiles()) {
-          log.info("[clearDirectoryFromSmb] Deleting file: {}", file.getPath());
-          file.delete();
-        }
-        log.info("[clearDirectoryFromSmb] Directory cleared successfully: {}", smbUrl);
+        SmbFile[] files = smbDir.listFiles();
+        int deleted = deleteInParallel(Arrays.asList(files));
+        log.info(
+            "[clearDirectoryFromSmb] Directory cleared: {}, deleted {}/{}",
+            smbUrl,
+            deleted,
+            files.length);
       } else {
         log.warn("[clearDirectoryFromSmb] Directory not found or not a directory: {}", smbUrl);
       }
@@ -116,12 +149,244 @@ public class SmbService {
     }
   }
 
-  private void uploadFile(String serverName, String fileName, InputStream inputStream)
-      throws Exception {
+  /**
+   * 開啟 SMB 檔案的串流，以 smb.client.buffer-size 大小讀取，關閉串流時一併關閉檔案
+   *
+   * @return 呼叫端負責關閉
+   */
+  public InputStream openInputStream(
+      String serverName, String smbBasePath, String... smbPathComponents) throws IOException {
+    CIFSContext context = getContext(serverName);
+    SmbFile smbFile = new SmbFile(buildSmbPath(smbBasePath, smbPathComponents), context);
+    try {
+      InputStream in = smbFile.getInputStream();
+      return new BufferedInputStream(
+          new FilterInputStream(in) {
+            @Override
+            public void close() throws IOException {
+              try {
+                super.close();
+              } finally {
+                smbFile.close();
+              }
+            }
+          },
+          smbProperties.getClient().getBufferSize());
+    } catch (IOException | RuntimeException e) {
+      smbFile.close();
+      throw e;
+    }
+  }
+
+  /**
+   * 將 SMB 檔案直接寫入本機檔案，不經過暫存檔
+   *
+   * @return 寫入的位元組數
+   */
+  public long copyToFile(
+      String serverName, Path target, String smbBasePath, String... smbPathComponents)
+      throws IOException {
+    CIFSContext context = getContext(serverName);
+    String smbUrl = buildSmbPath(smbBasePath, smbPathComponents);
+    try (SmbFile smbFile = new SmbFile(smbUrl, context);
+        InputStream in = smbFile.getInputStream()) {
+      return copyToChannel(in, target);
+    }
+  }
+
+  /**
+   * 平行列出目錄下的檔案，子目錄同一層的列表同時進行
+   *
+   * @param recursive 是否包含子目錄內的檔案
+   * @return 檔案的 SMB URL，不含目錄
+   */
+  public List<String> listFiles(
+      String serverName, boolean recursive, String smbBasePath, String... smbPathComponents)
+      throws IOException {
+    CIFSContext context = getContext(serverName);
+    String smbUrl = buildSmbPath(smbBasePath, smbPathComponents);
+    List<String> files = new ArrayList<>();
+    List<String> level = List.of(smbUrl.endsWith("/") ? smbUrl : smbUrl + "/");
+    while (!level.isEmpty()) {
+      List<CompletableFuture<SmbFile[]>> futures = new ArrayList<>(level.size());
+      for (String dir : level) {
+        futures.add(CompletableFuture.supplyAsync(() -> listDirectory(dir, context), smbExecutor));
+      }
+      List<String> next = new ArrayList<>();
+      IOException failure = null;
+      for (CompletableFuture<SmbFile[]> future : futures) {
+        SmbFile[] children;
+        try {
+          children = join(future);
+        } catch (IOException e) {
+          // 其餘結果仍需關閉
+          failure = failure == null ? e : failure;
+          continue;
+        }
+        for (SmbFile child : children) {
+          try (child) {
+            if (child.isDirectory()) {
+              next.add(child.getPath());
+            } else {
+              files.add(child.getPath());
+            }
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      level = recursive ? next : List.of();
+    }
+    return files;
+  }
+
+  /**
+   * 平行刪除檔案
+   *
+   * @param smbUrls 檔案的 SMB URL
+   * @return 刪除成功的數量，失敗只記錄 log
+   */
+  public int deleteFiles(String serverName, Collection<String> smbUrls) {
+    CIFSContext context = getContext(serverName);
+    List<SmbFile> files = new ArrayList<>(smbUrls.size());
+    try {
+      for (String smbUrl : smbUrls) {
+        files.add(new SmbFile(smbUrl, context));
+      }
+      return deleteInParallel(files);
+    } catch (MalformedURLException e) {
+      log.error("[deleteFiles] Invalid SMB URL: {}", e.getMessage());
+      return 0;
+    } finally {
+      files.forEach(SmbFile::close);
+    }
+  }
+
+  private int deleteInParallel(List<SmbFile> files) {
+    List<CompletableFuture<Boolean>> futures = new ArrayList<>(files.size());
+    for (SmbFile file : files) {
+      futures.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                try {
+                  file.delete();
+                  return true;
+                } catch (SmbException e) {
+                  log.error("[deleteInParallel] Delete {} fail: {}", file.getPath(), e.getMessage());
+                  return false;
+                }
+              },
+              smbExecutor));
+    }
+    return (int) futures.stream().filter(CompletableFuture::join).count();
+  }
+
+  private SmbFile[] listDirectory(String dirUrl, CIFSContext context) {
+    try (SmbFile dir = new SmbFile(dirUrl, context)) {
+      return dir.listFiles();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private <T> T join(CompletableFuture<T> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw e;
+    }
+  }
+
+  private long copyToChannel(InputStream in, Path target) throws IOException {
+    byte[] buffer = new byte[smbProperties.getClient().getBufferSize()];
+    long total = 0;
+    try (FileChannel channel =
+        FileChannel.open(
+            target,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+        while (byteBuffer.hasRemaining()) {
+          channel.write(byteBuffer);
+        }
+        total += read;
+      }
+    }
+    return total;
+  }
+
+  /** 取得伺服器的 CIFSContext，開啟設定時一併保持共用資料夾連線 */
+  CIFSContext getContext(String serverName) {
     CIFSContext context = cifsContextMap.get(serverName);
     if (context == null) {
       throw new IllegalArgumentException("No CIFSContext found for server: " + serverName);
     }
+    if (smbProperties.getClient().isKeepAlive() && !shareRoots.containsKey(serverName)) {
+      keepAlive(serverName, context);
+    }
+    return context;
+  }
+
+  /** 於 map 之外連線，失敗後 keep-alive-retry-millis 內不再嘗試，避免每次操作多等一次連線逾時 */
+  private void keepAlive(String serverName, CIFSContext context) {
+    SmbProperties.ServerConfig config = smbProperties.getServers().get(serverName);
+    if (config == null || config.getUrl() == null || config.getRemotePath() == null) {
+      return;
+    }
+    Long retryAt = shareRootRetryAt.get(serverName);
+    if (retryAt != null && System.currentTimeMillis() < retryAt) {
+      return;
+    }
+    if (!openingShareRoots.add(serverName)) {
+      return;
+    }
+    try {
+      if (shareRoots.containsKey(serverName)) {
+        return;
+      }
+      SmbFile root = openShareRoot(config, context);
+      if (root == null) {
+        shareRootRetryAt.put(
+            serverName,
+            System.currentTimeMillis() + smbProperties.getClient().getKeepAliveRetryMillis());
+        return;
+      }
+      shareRootRetryAt.remove(serverName);
+      shareRoots.put(serverName, root);
+    } finally {
+      openingShareRoots.remove(serverName);
+    }
+  }
+
+  private SmbFile openShareRoot(SmbProperties.ServerConfig config, CIFSContext context) {
+    String shareUrl = config.getBaseSmbUrl();
+    int slash = shareUrl.indexOf('/', "smb://".length() + config.getUrl().length() + 1);
+    // 只保持到共用資料夾層級
+    String rootUrl = (slash > 0 ? shareUrl.substring(0, slash) : shareUrl) + "/";
+    SmbFile root = null;
+    try {
+      root = new SmbFile(rootUrl, context);
+      root.exists();
+      return root;
+    } catch (Exception e) {
+      log.warn("[openShareRoot] Keep alive {} fail: {}", rootUrl, e.getMessage());
+      if (root != null) {
+        root.close();
+      }
+      return null;
+    }
+  }
+
+  private void uploadFile(String serverName, String fileName, InputStream inputStream)
+      throws Exception {
+    CIFSContext context = getContext(serverName);
 
     SmbProperties.ServerConfig config = getServerConfig(serverName);
 
@@ -135,7 +400,7 @@ public class SmbService {
     try (SmbFile smbFile = new SmbFile(smbUrl, context);
         OutputStream os = smbFile.getOutputStream()) {
 
-      byte[] buffer = new byte[8192];
+      byte[] buffer = new byte[smbProperties.getClient().getBufferSize()];
       int bytesRead;
       while ((bytesRead = inputStream.read(buffer)) != -1) {
         os.write(buffer, 0, bytesRead);
@@ -4,24 +4,36 @@
  */
 package com.project.integration.ssh;
 
+import com.bi.base.util.SpringUtil;
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
-import com.jcraft.jsch.Session;
 import com.jcraft.jsch.SftpException;
+import com.project.integration.ssh.model.SftpSyncResult;
+import com.project.integration.ssh.pool.SftpFolderSync;
+import com.project.integration.ssh.pool.SftpSessionPool;
+import com.project.integration.ssh.pool.SftpTransferMonitor;
 import java.io.ByteArrayInputStream;
-import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Properties;
 import java.util.Vector;
+import java.util.concurrent.Executor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * SFTP 檔案操作
+ * <p>
+ * 連線由 Spring 管理的 {@link SftpSessionPool} 提供，同一主機重複呼叫時共用 SSH session，不需重新握手。
+ */
 @Slf4j
 public class SshFileManager
 {
 
+	private static final int DEFAULT_SYNC_PARALLELISM = 4;
+
+	private final SftpSessionPool pool;
+	private final Executor executor;
 	private String host;
 	private int port = 22;
 	private String username;
@@ -29,6 +41,13 @@ public class SshFileManager
 
 	public SshFileManager(String host, int port, String username, String password)
 	{
+		this(SpringUtil.getBean(SftpSessionPool.class), SpringUtil.getBean("sftpExecutor"), host, port, username, password);
+	}
+
+	public SshFileManager(SftpSessionPool pool, Executor executor, String host, int port, String username, String password)
+	{
+		this.pool = pool;
+		this.executor = executor;
 		this.host = host;
 		this.port = port;
 		this.username = username;
@@ -40,88 +59,46 @@ public class SshFileManager
 	 */
 	public void downloadFile(String remoteFilePath, String localFilePath)
 	{
-		ChannelSftp channelSftp = null;
-		Session session = null;
 		try
 		{
-			JSch jsch = new JSch();
-			session = jsch.getSession(username, host, port);
-			session.setPassword(password);
-			session.setConfig("StrictHostKeyChecking", "no");
-			session.connect();
-
-			channelSftp = (ChannelSftp) session.openChannel("sftp");
-			channelSftp.connect();
-
-			channelSftp.get(remoteFilePath, localFilePath);
+			execute(channelSftp -> {
+				channelSftp.get(remoteFilePath, localFilePath);
+				return null;
+			});
 		}
 		catch (JSchException | SftpException e)
 		{
 			log.info("[downloadFile] Error while downloading file from SFTP server: {}", e.getMessage());
 		}
-		finally
-		{
-			if (channelSftp != null)
-			{
-				channelSftp.disconnect();
-			}
-			if (session != null)
-			{
-				session.disconnect();
-			}
-		}
 	}
 
 	/**
 	 * Copy folder from SFTP server to local directory.
+	 * Only new or changed files are downloaded, see {@link SftpFolderSync}.
 	 */
 	public void synchronizeFolder(String remoteFolderPath, String localFolderPath)
 	{
-		Session session = null;
-		ChannelSftp channelSftp = null;
 		try
 		{
-			JSch jsch = new JSch();
-			session = jsch.getSession(username, host, port);
-			session.setPassword(password);
-			session.setConfig("StrictHostKeyChecking", "no");
-			session.connect();
-
-			channelSftp = (ChannelSftp) session.openChannel("sftp");
-			channelSftp.connect();
-
-			// Change to the remote directory
-			channelSftp.cd(remoteFolderPath);
-
-			// List files in the remote directory
-			Vector<ChannelSftp.LsEntry> fileList = channelSftp.ls(remoteFolderPath);
-			for (ChannelSftp.LsEntry entry : fileList)
+			SftpSyncResult result = synchronizeFolder(remoteFolderPath, localFolderPath, DEFAULT_SYNC_PARALLELISM);
+			if (!result.getFailed().isEmpty())
 			{
-				if (!entry.getAttrs().isDir())
-				{ // Ignore directories
-					String remoteFileName = entry.getFilename();
-					String localFilePath = localFolderPath + File.separator + remoteFileName;
-					File localFile = new File(localFilePath);
-					// Download file from remote server
-					channelSftp.get(remoteFileName, localFile.getAbsolutePath());
-				}
+				log.info("[synchronizeFolder] Error while downloading file from SFTP server: {}", result.getFailed());
 			}
 		}
-		catch (JSchException | SftpException e)
+		catch (JSchException | SftpException | IOException e)
 		{
 			log.info("[synchronizeFolder] Error while downloading file from SFTP server: {}", e.getMessage());
 		}
-		finally
-		{
-			if (channelSftp != null)
-			{
-				channelSftp.disconnect();
-			}
-			if (session != null)
-			{
-				session.disconnect();
-			}
-		}
+	}
+
+	/**
+	 * Incrementally copy folder from SFTP server to local directory with several channels.
+	 */
+	public SftpSyncResult synchronizeFolder(String remoteFolderPath, String localFolderPath, int parallelism)
+			throws JSchException, SftpException, IOException
+	{
+		return new SftpFolderSync(pool, executor, host, port, username, password).sync(remoteFolderPath, localFolderPath, parallelism);
 	}
 
 	/**
@@ -129,56 +106,51 @@ public class SshFileManager
 	 */
 	public void moveAllFiles(String remoteFolderPath, String destinationFolderPath)
 	{
-		Session session = null;
-		ChannelSftp channelSftp = null;
 		try
 		{
-			JSch jsch = new JSch();
-			session = jsch.getSession(username, host, port);
-			session.setPassword(password);
-			session.setConfig("StrictHostKeyChecking", "no");
-			session.connect();
-
-			channelSftp = (ChannelSftp) session.openChannel("sftp");
-			channelSftp.connect();
-
-			// Change to the remote directory
-			channelSftp.cd(remoteFolderPath);
-
-			// List files in the remote directory
-			Vector<ChannelSftp.LsEntry> fileList = channelSftp.ls(".");
-			for (ChannelSftp.LsEntry entry : fileList)
-			{
-				if (!entry.getAttrs().isDir())
-				{ // Ignore directories
-					String remoteFileName = entry.getFilename();
-					String destinationFilePath = destinationFolderPath + "/" + remoteFileName;
-					channelSftp.rename(remoteFileName, destinationFilePath); // Move file
+			execute(channelSftp -> {
+				// Change to the remote directory
+				channelSftp.cd(remoteFolderPath);
+
+				// List files in the remote directory
+				Vector<ChannelSftp.LsEntry> fileList = channelSftp.ls(".");
+				for (ChannelSftp.LsEntry entry : fileList)
+				{
+					if (!entry.getAttrs().isDir())
+					{ // Ignore directories
+						String remoteFileName = entry.getFilename();
+						String destinationFilePath = destinationFolderPath + "/" + remoteFileName;
+						channelSftp.rename(remoteFileName, destinationFilePath); // Move file
+					}
 				}
-			}
+				return null;
+			});
 		}
 		catch (JSchException | SftpException e)
 		{
 			log.info("[moveAllFiles] Error while downloading file from SFTP server: {}", e.getMessage());
 		}
-		finally
-		{
-			if (channelSftp != null)
-			{
-				channelSftp.disconnect();
-			}
-			if (session != null)
-			{
-				session.disconnect();
-			}
-		}
 	}
 
 	public void uploadFile(Path localFilePath, String remoteDir, String remoteFileName) throws Exception
 	{
+		uploadFile(localFilePath, remoteDir, remoteFileName, null);
+	}
+
+	/**
+	 * Stream local file to SFTP server and verify the remote size afterwards.
+	 *
+	 * @param monitor progress of the transfer, may be null
+	 * @return bytes written
+	 */
+	public long uploadFile(Path localFilePath, String remoteDir, String remoteFileName, SftpTransferMonitor monitor)
+			throws JSchException, SftpException, IOException
+	{
+		SftpTransferMonitor progress = monitor != null ? monitor : new SftpTransferMonitor();
+		progress.setTotal(Files.size(localFilePath));
 		try (InputStream inputStream = Files.newInputStream(localFilePath))
 		{
-			uploadFile(inputStream, remoteDir, remoteFileName);
+			return uploadStream(inputStream, remoteDir, remoteFileName, progress);
 		}
 	}
 
@@ -186,44 +158,45 @@ public class SshFileManager
 	{
 		try (InputStream inputStream = new ByteArrayInputStream(fileBytes))
 		{
-			uploadFile(inputStream, remoteDir, remoteFileName);
+			SftpTransferMonitor progress = new SftpTransferMonitor();
+			progress.setTotal(fileBytes.length);
+			uploadStream(inputStream, remoteDir, remoteFileName, progress);
 		}
 	}
 
-
-	private void uploadFile(InputStream inputStream, String remoteDir, String remoteFileName) throws Exception
+	/**
+	 * Stream data of any size to SFTP server and verify the remote size afterwards.
+	 * Write requests are pipelined, see sftp.bulk-requests. The stream is not closed.
+	 *
+	 * @param monitor progress of the transfer, may be null
+	 * @return bytes written
+	 */
+	public long uploadStream(InputStream inputStream, String remoteDir, String remoteFileName, SftpTransferMonitor monitor)
+			throws JSchException, SftpException
 	{
-		JSch jsch = new JSch();
-		Session session = null;
-		ChannelSftp channelSftp = null;
-
-		try
-		{
-			session = jsch.getSession(username, host, port);
-			session.setPassword(password);
-
-			Properties config = new Properties();
-			config.put("StrictHostKeyChecking", "no");
-			session.setConfig(config);
-			session.connect();
-
-			channelSftp = (ChannelSftp) session.openChannel("sftp");
-			channelSftp.connect();
+		SftpTransferMonitor progress = monitor != null ? monitor : new SftpTransferMonitor();
+		return execute(channelSftp -> {
 			channelSftp.cd(remoteDir);
-
-			channelSftp.put(inputStream, remoteFileName);
-
-		}
-		finally
-		{
-			if (channelSftp != null && channelSftp.isConnected())
+			channelSftp.put(inputStream, remoteFileName, progress, ChannelSftp.OVERWRITE);
+			if (progress.isCancelled())
 			{
-				channelSftp.disconnect();
+				// Drop the partial file
+				channelSftp.rm(remoteFileName);
+				throw new SftpException(ChannelSftp.SSH_FX_FAILURE, "Upload cancelled: " + remoteFileName);
 			}
-			if (session != null && session.isConnected())
+			long remoteSize = channelSftp.stat(remoteFileName).getSize();
+			if (remoteSize != progress.getTransferred())
 			{
-				session.disconnect();
+				throw new SftpException(ChannelSftp.SSH_FX_FAILURE,
+						"Remote size mismatch, expected " + progress.getTransferred() + " but was " + remoteSize);
 			}
-		}
+			log.debug("[uploadStream] {} bytes uploaded in {} ms", remoteSize, progress.getElapsedMillis());
+			return remoteSize;
+		});
+	}
+
+	private <T> T execute(SftpSessionPool.SftpCallback<T> callback) throws JSchException, SftpException
+	{
+		return pool.execute(host, port, username, password, callback);
 	}
-}
\ No newline at end of file
+}
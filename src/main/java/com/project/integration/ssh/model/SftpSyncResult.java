@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.ssh.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Data;
+
+/**
+ * SFTP 目錄同步結果
+ */
+@Data
+public class SftpSyncResult {
+
+	private int files;
+
+	private final AtomicInteger downloaded = new AtomicInteger();
+
+	private final AtomicInteger skipped = new AtomicInteger();
+
+	/** 以續傳方式完成的檔案數 */
+	private final AtomicInteger resumed = new AtomicInteger();
+
+	/** 實際傳輸的位元組數，不含續傳前已存在的部分 */
+	private final AtomicLong bytes = new AtomicLong();
+
+	/** 下載失敗的檔名 */
+	private final List<String> failed = new CopyOnWriteArrayList<>();
+
+	private long elapsedMillis;
+}
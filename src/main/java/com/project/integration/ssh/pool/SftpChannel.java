@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.ssh.pool;
+
+import com.jcraft.jsch.ChannelSftp;
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 從 {@link SftpSessionPool} 借出的 SFTP channel，close 時歸還連線池
+ * <p>
+ * 同一個 SSH session 上可同時開啟多個 channel；channel 狀態不明時呼叫 {@link #invalidate()}，close 時只關閉此 channel，
+ * 不影響同 session 上的其他 channel。
+ *
+ * @since 1.0.0
+ */
+public class SftpChannel implements Closeable {
+
+	private final ChannelSftp channel;
+
+	private final SftpSessionPool.SftpKey key;
+
+	private final SftpSessionPool.SshSession session;
+
+	private final String homeDirectory;
+
+	private final SftpSessionPool pool;
+
+	private volatile boolean broken;
+
+	private final AtomicBoolean borrowed = new AtomicBoolean();
+
+	SftpChannel(ChannelSftp channel, SftpSessionPool.SftpKey key, SftpSessionPool.SshSession session, String homeDirectory, SftpSessionPool pool) {
+		this.channel = channel;
+		this.key = key;
+		this.session = session;
+		this.homeDirectory = homeDirectory;
+		this.pool = pool;
+	}
+
+	public ChannelSftp getChannel() {
+		return channel;
+	}
+
+	/**
+	 * 開啟 channel 時的工作目錄，歸還時切回此目錄
+	 */
+	public String getHomeDirectory() {
+		return homeDirectory;
+	}
+
+	/**
+	 * 標記 channel 不可再使用
+	 */
+	public void invalidate() {
+		broken = true;
+	}
+
+	boolean isBroken() {
+		return broken;
+	}
+
+	boolean isConnected() {
+		return channel.isConnected() && session.isConnected();
+	}
+
+	SftpSessionPool.SftpKey getKey() {
+		return key;
+	}
+
+	SftpSessionPool.SshSession getSession() {
+		return session;
+	}
+
+	void onBorrow() {
+		broken = false;
+		borrowed.set(true);
+	}
+
+	/**
+	 * @return 是否為第一次歸還，重複 close 時回傳 false
+	 */
+	boolean onRelease() {
+		return borrowed.compareAndSet(true, false);
+	}
+
+	@Override
+	public void close() {
+		pool.release(this);
+	}
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.ssh.pool;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+import com.project.integration.ssh.model.SftpSyncResult;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SFTP 目錄增量同步
+ * <p>
+ * 以本機目錄中的 manifest 記錄上次同步時遠端檔案的大小與修改時間，只下載有變動的檔案。
+ * 變動檔案由多個 channel 平行下載，worker 執行於共用的 sftpExecutor，每個 worker 只借一次 channel；先寫入 .part 暫存檔再改名，
+ * 暫存檔名含遠端修改時間，下次同步時遠端未變動則以 {@link ChannelSftp#RESUME} 續傳。
+ * 只處理遠端目錄第一層的檔案，不刪除本機檔案。
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+public class SftpFolderSync {
+
+	/** 本機目錄中的 manifest 檔名 */
+	public static final String MANIFEST_NAME = ".sftp-sync.properties";
+
+	private static final String PART_SUFFIX = ".part";
+
+	private static final String SEPARATOR = "/";
+
+	private final SftpSessionPool pool;
+
+	private final Executor executor;
+
+	private final String host;
+
+	private final int port;
+
+	private final String username;
+
+	private final String password;
+
+	public SftpFolderSync(SftpSessionPool pool, Executor executor, String host, int port, String username, String password) {
+		this.pool = pool;
+		this.executor = executor;
+		this.host = host;
+		this.port = port;
+		this.username = username;
+		this.password = password;
+	}
+
+	/**
+	 * 同步遠端目錄至本機
+	 * <p>
+	 * 單一檔案失敗 (含 RuntimeException) 不中斷同步，記錄於結果中，未完成的暫存檔保留供下次續傳。
+	 *
+	 * @param remoteFolder 遠端目錄
+	 * @param localFolder 本機目錄，不存在時建立
+	 * @param parallelism 同時下載的 channel 數
+	 * @return
+	 * @throws JSchException 無法取得連線
+	 * @throws SftpException 列遠端目錄失敗
+	 * @throws IOException 本機目錄或 manifest 無法讀寫
+	 */
+	public SftpSyncResult sync(String remoteFolder, String localFolder, int parallelism) throws JSchException, SftpException, IOException {
+		long start = System.currentTimeMillis();
+		Path base = Paths.get(localFolder).toAbsolutePath().normalize();
+		Files.createDirectories(base);
+
+		Map<String, RemoteFile> remoteFiles = pool.execute(host, port, username, password, channel -> list(channel, remoteFolder));
+		Properties manifest = loadManifest(base);
+		removeStaleParts(base, remoteFiles);
+
+		SftpSyncResult result = new SftpSyncResult();
+		result.setFiles(remoteFiles.size());
+		Map<String, String> synced = new ConcurrentHashMap<>();
+		List<RemoteFile> changed = new ArrayList<>();
+		for (RemoteFile file : remoteFiles.values()) {
+			Path target = resolve(base, file.name);
+			if (file.signature().equals(manifest.getProperty(file.name)) && Files.isRegularFile(target) && Files.size(target) == file.size) {
+				synced.put(file.name, file.signature());
+				result.getSkipped().incrementAndGet();
+			} else {
+				changed.add(file);
+			}
+		}
+		// 大檔先下載，避免最後只剩單一 channel 在傳輸
+		changed.sort(Comparator.comparingLong((RemoteFile f) -> f.size).reversed());
+
+		if (!changed.isEmpty()) {
+			Queue<RemoteFile> queue = new ConcurrentLinkedQueue<>(changed);
+			int workers = Math.min(Math.max(parallelism, 1), changed.size());
+			List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+			for (int i = 0; i < workers; i++) {
+				futures.add(CompletableFuture.runAsync(() -> drain(queue, base, synced, result), executor));
+			}
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+		}
+		saveManifest(base, synced);
+		result.setElapsedMillis(System.currentTimeMillis() - start);
+		return result;
+	}
+
+	private void drain(Queue<RemoteFile> queue, Path base, Map<String, String> synced, SftpSyncResult result) {
+		while (!queue.isEmpty()) {
+			try (SftpChannel channel = pool.borrowChannel(host, port, username, password)) {
+				RemoteFile file;
+				while ((file = queue.poll()) != null) {
+					try {
+						download(channel.getChannel(), base, file, result);
+						synced.put(file.name, file.signature());
+					} catch (SftpException e) {
+						log.warn("[SftpFolderSync] Download {} fail: {}", file.name, e.getMessage());
+						result.getFailed().add(file.name);
+						if (SftpSessionPool.isConnectionError(e) || !channel.isConnected()) {
+							channel.invalidate();
+							// 換新 channel 繼續
+							break;
+						}
+					} catch (IOException e) {
+						log.warn("[SftpFolderSync] Write {} fail: {}", file.name, e.getMessage());
+						result.getFailed().add(file.name);
+					} catch (RuntimeException e) {
+						log.warn("[SftpFolderSync] Download {} fail: {}", file.name, e.getMessage(), e);
+						result.getFailed().add(file.name);
+						// channel 狀態不明，換新 channel 繼續
+						channel.invalidate();
+						break;
+					}
+				}
+			} catch (JSchException | RuntimeException e) {
+				log.warn("[SftpFolderSync] Channel fail: {}", e.getMessage());
+				RemoteFile file;
+				while ((file = queue.poll()) != null) {
+					result.getFailed().add(file.name);
+				}
+			}
+		}
+	}
+
+	private void download(ChannelSftp channel, Path base, RemoteFile file, SftpSyncResult result) throws SftpException, IOException {
+		Path target = resolve(base, file.name);
+		Path part = resolve(base, partName(file));
+		long existing = Files.isRegularFile(part) ? Files.size(part) : 0;
+		if (existing > file.size) {
+			Files.delete(part);
+			existing = 0;
+		}
+		channel.get(file.path, part.toString(), null, existing > 0 ? ChannelSftp.RESUME : ChannelSftp.OVERWRITE);
+		long size = Files.size(part);
+		if (size != file.size) {
+			// 傳輸期間遠端檔案有變動，暫存檔無法續傳
+			Files.deleteIfExists(part);
+			throw new IOException("Size mismatch, expected " + file.size + " but was " + size);
+		}
+		Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		target.toFile().setLastModified(file.mtime * 1000L);
+		result.getDownloaded().incrementAndGet();
+		result.getBytes().addAndGet(file.size - existing);
+		if (existing > 0) {
+			result.getResumed().incrementAndGet();
+		}
+	}
+
+	private Map<String, RemoteFile> list(ChannelSftp channel, String remoteFolder) throws SftpException {
+		String folder = remoteFolder.endsWith(SEPARATOR) ? remoteFolder : remoteFolder + SEPARATOR;
+		Map<String, RemoteFile> files = new LinkedHashMap<>();
+		for (ChannelSftp.LsEntry entry : channel.ls(remoteFolder)) {
+			String name = entry.getFilename();
+			SftpATTRS attrs = entry.getAttrs();
+			if (attrs.isDir() || !isValidName(name)) {
+				continue;
+			}
+			String path = folder + name;
+			if (attrs.isLink()) {
+				// 連結以實際檔案的屬性比對
+				attrs = channel.stat(path);
+				if (attrs.isDir()) {
+					continue;
+				}
+			}
+			files.put(name, new RemoteFile(name, path, attrs.getSize(), attrs.getMTime()));
+		}
+		return files;
+	}
+
+	/**
+	 * 刪除遠端已變動檔案的舊暫存檔
+	 */
+	private void removeStaleParts(Path base, Map<String, RemoteFile> remoteFiles) throws IOException {
+		try (Stream<Path> stream = Files.list(base)) {
+			for (Path path : (Iterable<Path>) stream::iterator) {
+				String fileName = path.getFileName().toString();
+				if (!fileName.endsWith(PART_SUFFIX)) {
+					continue;
+				}
+				String stem = fileName.substring(0, fileName.length() - PART_SUFFIX.length());
+				int dot = stem.lastIndexOf('.');
+				RemoteFile file = dot > 0 ? remoteFiles.get(stem.substring(0, dot)) : null;
+				if (file != null && !fileName.equals(partName(file))) {
+					Files.deleteIfExists(path);
+				}
+			}
+		}
+	}
+
+	private Properties loadManifest(Path base) throws IOException {
+		Properties manifest = new Properties();
+		Path path = base.resolve(MANIFEST_NAME);
+		if (Files.isRegularFile(path)) {
+			try (InputStream is = Files.newInputStream(path)) {
+				manifest.load(is);
+			}
+		}
+		return manifest;
+	}
+
+	/**
+	 * 先寫入暫存檔再改名，避免中斷時留下不完整的 manifest
+	 */
+	private void saveManifest(Path base, Map<String, String> synced) throws IOException {
+		Properties manifest = new Properties();
+		manifest.putAll(synced);
+		Path path = base.resolve(MANIFEST_NAME);
+		Path temp = base.resolve(MANIFEST_NAME + PART_SUFFIX);
+		try (OutputStream os = Files.newOutputStream(temp)) {
+			manifest.store(os, "size:mtime of synchronized files");
+		}
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private Path resolve(Path base, String name) throws IOException {
+		Path target = base.resolve(name).normalize();
+		// fix Path Traversal
+		if (!base.equals(target.getParent())) {
+			throw new IOException("Invalid file name: " + name);
+		}
+		return target;
+	}
+
+	private boolean isValidName(String name) {
+		return !name.equals(".") && !name.equals("..") && !name.equals(MANIFEST_NAME) && !name.contains(SEPARATOR) && !name.contains("\\");
+	}
+
+	private String partName(RemoteFile file) {
+		return file.name + "." + file.mtime + PART_SUFFIX;
+	}
+
+	private static final class RemoteFile {
+
+		private final String name;
+
+		private final String path;
+
+		private final long size;
+
+		private final long mtime;
+
+		RemoteFile(String name, String path, long size, long mtime) {
+			this.name = name;
+			this.path = path;
+			this.size = size;
+			this.mtime = mtime;
+		}
+
+		String signature() {
+			return size + ":" + mtime;
+		}
+	}
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.ssh.pool;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * SFTP 連線池，依 host/port/user 與密碼區分，密碼不同時不共用已驗證的 session
+ * <p>
+ * 同一主機共用 SSH session，每個 session 上最多開啟 sftp.pool.max-channels-per-session 個 channel，
+ * 只有 session 已滿時才進行新的握手。session 以 keepalive 偵測斷線，閒置的 channel 由背景檢查關閉，
+ * session 上的 channel 全部關閉後一併斷線。
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class SftpSessionPool {
+
+	private static final String CHANNEL_TYPE = "sftp";
+
+	@Value("${sftp.connect-timeout-millis:10000}")
+	private int connectTimeoutMillis;
+
+	@Value("${sftp.keepalive-interval-millis:30000}")
+	private int keepaliveIntervalMillis;
+
+	@Value("${sftp.keepalive-count-max:3}")
+	private int keepaliveCountMax;
+
+	/** 每個 channel 未確認的讀寫請求數上限 */
+	@Value("${sftp.bulk-requests:32}")
+	private int bulkRequests;
+
+	@Value("${sftp.pool.max-channels-per-session:8}")
+	private int maxChannelsPerSession;
+
+	@Value("${sftp.pool.max-total-per-key:16}")
+	private int maxTotalPerKey;
+
+	@Value("${sftp.pool.max-idle-per-key:8}")
+	private int maxIdlePerKey;
+
+	@Value("${sftp.pool.max-wait-millis:30000}")
+	private long maxWaitMillis;
+
+	@Value("${sftp.pool.eviction-interval-millis:60000}")
+	private long evictionIntervalMillis;
+
+	@Value("${sftp.pool.min-evictable-idle-millis:300000}")
+	private long minEvictableIdleMillis;
+
+	private final JSch jsch = new JSch();
+
+	private final Map<SftpKey, List<SshSession>> sessions = new ConcurrentHashMap<>();
+
+	private GenericKeyedObjectPool<SftpKey, SftpChannel> pool;
+
+	@PostConstruct
+	public void init() {
+		GenericKeyedObjectPoolConfig<SftpChannel> config = new GenericKeyedObjectPoolConfig<>();
+		config.setMaxTotalPerKey(maxTotalPerKey);
+		config.setMaxIdlePerKey(maxIdlePerKey);
+		config.setMaxWait(Duration.ofMillis(maxWaitMillis));
+		config.setTestOnBorrow(true);
+		config.setTestWhileIdle(true);
+		config.setTimeBetweenEvictionRuns(Duration.ofMillis(evictionIntervalMillis));
+		config.setMinEvictableIdleTime(Duration.ofMillis(minEvictableIdleMillis));
+		config.setJmxEnabled(false);
+		pool = new GenericKeyedObjectPool<>(new SftpChannelFactory(), config);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		pool.close();
+		sessions.values().forEach(list -> {
+			synchronized (list) {
+				list.forEach(s -> s.session.disconnect());
+				list.clear();
+			}
+		});
+	}
+
+	/**
+	 * 借出 channel，使用完畢需 close
+	 *
+	 * @param host
+	 * @param port
+	 * @param username
+	 * @param password
+	 * @return
+	 * @throws JSchException 無法建立連線或等待逾時
+	 */
+	public SftpChannel borrowChannel(String host, int port, String username, String password) throws JSchException {
+		SftpKey key = new SftpKey(host, port, username, password);
+		try {
+			SftpChannel channel = pool.borrowObject(key);
+			channel.onBorrow();
+			return channel;
+		} catch (JSchException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JSchException("Borrow sftp channel fail: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 借出 channel 執行動作後歸還
+	 * <p>
+	 * 檔案不存在、權限不足等 SftpException 不影響 channel，歸還後可繼續使用；連線中斷或其他例外則關閉 channel。
+	 *
+	 * @param host
+	 * @param port
+	 * @param username
+	 * @param password
+	 * @param callback
+	 * @return
+	 * @throws JSchException
+	 * @throws SftpException
+	 */
+	public <T> T execute(String host, int port, String username, String password, SftpCallback<T> callback)
+			throws JSchException, SftpException {
+		try (SftpChannel channel = borrowChannel(host, port, username, password)) {
+			try {
+				return callback.doInSftp(channel.getChannel());
+			} catch (SftpException e) {
+				if (isConnectionError(e) || !channel.isConnected()) {
+					channel.invalidate();
+				}
+				throw e;
+			} catch (JSchException | RuntimeException e) {
+				channel.invalidate();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * 是否為連線中斷造成的錯誤，此時 channel 不可再使用
+	 */
+	static boolean isConnectionError(SftpException e) {
+		return e.id == ChannelSftp.SSH_FX_CONNECTION_LOST || e.id == ChannelSftp.SSH_FX_NO_CONNECTION;
+	}
+
+	void release(SftpChannel channel) {
+		if (!channel.onRelease()) {
+			return;
+		}
+		if (channel.isBroken()) {
+			try {
+				pool.invalidateObject(channel.getKey(), channel);
+			} catch (Exception e) {
+				log.warn("[SftpSessionPool] Invalidate channel fail: {}", e.getMessage());
+			}
+		} else {
+			pool.returnObject(channel.getKey(), channel);
+		}
+	}
+
+	public int getNumActive() {
+		return pool.getNumActive();
+	}
+
+	public int getNumIdle() {
+		return pool.getNumIdle();
+	}
+
+	/**
+	 * 目前連線中的 SSH session 數
+	 */
+	public int getNumSessions() {
+		return sessions.values().stream().mapToInt(List::size).sum();
+	}
+
+	/**
+	 * 取得尚有空位的 session，全部已滿時才建立新 session
+	 * <p>
+	 * 握手在鎖外進行，不阻擋同一主機其他借用者使用既有 session。
+	 */
+	private SshSession acquireSession(SftpKey key) throws JSchException {
+		List<SshSession> list = sessions.computeIfAbsent(key, k -> new ArrayList<>());
+		synchronized (list) {
+			for (SshSession s : list) {
+				if (s.isConnected() && s.channels.get() < maxChannelsPerSession) {
+					s.channels.incrementAndGet();
+					return s;
+				}
+			}
+		}
+		Session session = jsch.getSession(key.username, key.host, key.port);
+		session.setPassword(key.password);
+		session.setConfig("StrictHostKeyChecking", "no");
+		session.setServerAliveInterval(keepaliveIntervalMillis);
+		session.setServerAliveCountMax(keepaliveCountMax);
+		session.setDaemonThread(true);
+		session.connect(connectTimeoutMillis);
+		SshSession s = new SshSession(session);
+		s.channels.incrementAndGet();
+		synchronized (list) {
+			list.add(s);
+		}
+		return s;
+	}
+
+	/**
+	 * channel 關閉後呼叫，session 上已無 channel 時斷線
+	 */
+	private void releaseSession(SftpKey key, SshSession s) {
+		List<SshSession> list = sessions.get(key);
+		if (list == null) {
+			return;
+		}
+		synchronized (list) {
+			if (s.channels.decrementAndGet() <= 0) {
+				list.remove(s);
+				s.session.disconnect();
+			}
+		}
+	}
+
+	/**
+	 * 使用借出 channel 的動作
+	 */
+	@FunctionalInterface
+	public interface SftpCallback<T> {
+
+		T doInSftp(ChannelSftp channel) throws JSchException, SftpException;
+	}
+
+	static final class SftpKey {
+
+		private final String host;
+
+		private final int port;
+
+		private final String username;
+
+		/** 只用於建立 session，不參與比較 */
+		private final String password;
+
+		/** 密碼的 SHA-256，密碼不同視為不同的 key */
+		private final byte[] credential;
+
+		SftpKey(String host, int port, String username, String password) {
+			this.host = host;
+			this.port = port;
+			this.username = username;
+			this.password = password;
+			this.credential = digest(password);
+		}
+
+		private static byte[] digest(String password) {
+			if (password == null) {
+				return new byte[0];
+			}
+			try {
+				return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof SftpKey)) {
+				return false;
+			}
+			SftpKey other = (SftpKey) o;
+			return port == other.port && Objects.equals(host, other.host) && Objects.equals(username, other.username)
+					&& MessageDigest.isEqual(credential, other.credential);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(host, port, username, Arrays.hashCode(credential));
+		}
+
+		@Override
+		public String toString() {
+			return username + "@" + host + ":" + port;
+		}
+	}
+
+	static final class SshSession {
+
+		private final Session session;
+
+		private final AtomicInteger channels = new AtomicInteger();
+
+		SshSession(Session session) {
+			this.session = session;
+		}
+
+		boolean isConnected() {
+			return session.isConnected();
+		}
+	}
+
+	private class SftpChannelFactory extends BaseKeyedPooledObjectFactory<SftpKey, SftpChannel> {
+
+		@Override
+		public SftpChannel create(SftpKey key) throws Exception {
+			SshSession s = acquireSession(key);
+			try {
+				ChannelSftp channel = (ChannelSftp) s.session.openChannel(CHANNEL_TYPE);
+				channel.connect(connectTimeoutMillis);
+				channel.setBulkRequests(bulkRequests);
+				return new SftpChannel(channel, key, s, channel.pwd(), SftpSessionPool.this);
+			} catch (JSchException | SftpException | RuntimeException e) {
+				releaseSession(key, s);
+				throw e;
+			}
+		}
+
+		@Override
+		public PooledObject<SftpChannel> wrap(SftpChannel channel) {
+			return new DefaultPooledObject<>(channel);
+		}
+
+		@Override
+		public boolean validateObject(SftpKey key, PooledObject<SftpChannel> p) {
+			// session 斷線由 keepalive 偵測
+			return p.getObject().isConnected();
+		}
+
+		@Override
+		public void passivateObject(SftpKey key, PooledObject<SftpChannel> p) throws Exception {
+			SftpChannel channel = p.getObject();
+			ChannelSftp sftp = channel.getChannel();
+			// pwd 不需往返伺服器，只有切換過目錄才切回
+			if (channel.getHomeDirectory() != null && !channel.getHomeDirectory().equals(sftp.pwd())) {
+				sftp.cd(channel.getHomeDirectory());
+			}
+		}
+
+		@Override
+		public void destroyObject(SftpKey key, PooledObject<SftpChannel> p) {
+			SftpChannel channel = p.getObject();
+			channel.getChannel().disconnect();
+			releaseSession(key, channel.getSession());
+		}
+	}
+}
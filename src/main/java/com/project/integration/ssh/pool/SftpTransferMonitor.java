@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package com.project.integration.ssh.pool;
+
+import com.jcraft.jsch.SftpProgressMonitor;
+import java.util.function.Consumer;
+
+/**
+ * SFTP 傳輸進度與速率
+ * <p>
+ * 傳給 ChannelSftp 的 put/get 使用，listener 於傳輸中每隔 reportIntervalMillis 及結束時各呼叫一次。
+ * 呼叫 {@link #cancel()} 可中止傳輸。
+ *
+ * @since 1.0.0
+ */
+public class SftpTransferMonitor implements SftpProgressMonitor {
+
+	private final long reportIntervalMillis;
+
+	private final Consumer<SftpTransferMonitor> listener;
+
+	private volatile long total = UNKNOWN_SIZE;
+
+	private volatile long transferred;
+
+	private volatile long startNanos;
+
+	private volatile long endNanos;
+
+	private volatile boolean cancelled;
+
+	private long lastReportNanos;
+
+	public SftpTransferMonitor() {
+		this(0, null);
+	}
+
+	/**
+	 * @param reportIntervalMillis listener 最短呼叫間隔
+	 * @param listener 進度通知，可為 null
+	 */
+	public SftpTransferMonitor(long reportIntervalMillis, Consumer<SftpTransferMonitor> listener) {
+		this.reportIntervalMillis = reportIntervalMillis;
+		this.listener = listener;
+	}
+
+	@Override
+	public void init(int op, String src, String dest, long max) {
+		if (max != UNKNOWN_SIZE) {
+			total = max;
+		}
+		transferred = 0;
+		endNanos = 0;
+		startNanos = System.nanoTime();
+		lastReportNanos = startNanos;
+	}
+
+	@Override
+	public boolean count(long count) {
+		transferred += count;
+		if (listener != null) {
+			long now = System.nanoTime();
+			if (now - lastReportNanos >= reportIntervalMillis * 1_000_000L) {
+				lastReportNanos = now;
+				listener.accept(this);
+			}
+		}
+		return !cancelled;
+	}
+
+	@Override
+	public void end() {
+		endNanos = System.nanoTime();
+		if (listener != null) {
+			listener.accept(this);
+		}
+	}
+
+	/**
+	 * 中止傳輸，下一次回報進度時生效
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	public boolean isDone() {
+		return endNanos != 0;
+	}
+
+	/**
+	 * 設定總大小，來源為串流時 ChannelSftp 無法得知大小
+	 */
+	public void setTotal(long total) {
+		this.total = total;
+	}
+
+	/**
+	 * @return 總大小，未知時為 {@link #UNKNOWN_SIZE}
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	public long getTransferred() {
+		return transferred;
+	}
+
+	/**
+	 * @return 0 至 100，總大小未知時為 -1
+	 */
+	public int getPercent() {
+		long size = total;
+		if (size < 0) {
+			return -1;
+		}
+		return size == 0 ? 100 : (int) Math.min(100, transferred * 100 / size);
+	}
+
+	public long getElapsedMillis() {
+		if (startNanos == 0) {
+			return 0;
+		}
+		long end = endNanos != 0 ? endNanos : System.nanoTime();
+		return (end - startNanos) / 1_000_000L;
+	}
+
+	/**
+	 * 平均傳輸速率，經過時間不足 1 毫秒時為 0
+	 */
+	public long getBytesPerSecond() {
+		long elapsed = getElapsedMillis();
+		return elapsed == 0 ? 0 : transferred * 1000L / elapsed;
+	}
+
+	@Override
+	public String toString() {
+		return "SftpTransferMonitor(transferred=" + transferred + ", total=" + total + ", elapsedMillis=" + getElapsedMillis()
+				+ ", bytesPerSecond=" + getBytesPerSecond() + ")";
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package test;
+
+import com.project.frame.util.ExportExcelUtils;
+import com.project.frame.util.PropertyAccessorUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * ExportExcelUtils 欄位取值效能比較，100k 筆 x 30 欄 (含 student.department.name 巢狀路徑)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExportExcelAccessorBenchmark {
+
+	private static final int ROWS = 100_000;
+
+	private List<ExportRow> rows;
+
+	private String[] paths;
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(ExportExcelAccessorBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	@Setup
+	public void setup() {
+		rows = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			rows.add(new ExportRow(i));
+		}
+		paths = new String[30];
+		for (int i = 0; i < 28; i++) {
+			paths[i] = String.format("col%02d", i);
+		}
+		paths[28] = "department.name";
+		paths[29] = "student.department.name";
+	}
+
+	@Benchmark
+	public void reflectionWalk(Blackhole blackhole) throws Exception {
+		for (ExportRow row : rows) {
+			for (String path : paths) {
+				blackhole.consume(ExportExcelUtils.getFieldValueByNameSequence(path, row));
+			}
+		}
+	}
+
+	@Benchmark
+	public void cachedAccessor(Blackhole blackhole) throws Exception {
+		for (ExportRow row : rows) {
+			for (String path : paths) {
+				blackhole.consume(PropertyAccessorUtil.getValue(path, row));
+			}
+		}
+	}
+
+	public static class Department {
+
+		private String name;
+
+		Department(String name) {
+			this.name = name;
+		}
+	}
+
+	public static class Student {
+
+		private Department department;
+
+		Student(Department department) {
+			this.department = department;
+		}
+	}
+
+	public static class ExportRow {
+
+		private String col00;
+
+		private String col01;
+
+		private String col02;
+
+		private String col03;
+
+		private String col04;
+
+		private String col05;
+
+		private String col06;
+
+		private String col07;
+
+		private String col08;
+
+		private String col09;
+
+		private String col10;
+
+		private String col11;
+
+		private String col12;
+
+		private String col13;
+
+		private String col14;
+
+		private String col15;
+
+		private String col16;
+
+		private String col17;
+
+		private String col18;
+
+		private String col19;
+
+		private String col20;
+
+		private String col21;
+
+		private String col22;
+
+		private String col23;
+
+		private String col24;
+
+		private String col25;
+
+		private String col26;
+
+		private String col27;
+
+		private Department department;
+
+		private Student student;
+
+		ExportRow(int i) {
+			this.col00 = "value-" + i + "-0";
+			this.col01 = "value-" + i + "-1";
+			this.col02 = "value-" + i + "-2";
+			this.col03 = "value-" + i + "-3";
+			this.col04 = "value-" + i + "-4";
+			this.col05 = "value-" + i + "-5";
+			this.col06 = "value-" + i + "-6";
+			this.col07 = "value-" + i + "-7";
+			this.col08 = "value-" + i + "-8";
+			this.col09 = "value-" + i + "-9";
+			this.col10 = "value-" + i + "-10";
+			this.col11 = "value-" + i + "-11";
+			this.col12 = "value-" + i + "-12";
+			this.col13 = "value-" + i + "-13";
+			this.col14 = "value-" + i + "-14";
+			this.col15 = "value-" + i + "-15";
+			this.col16 = "value-" + i + "-16";
+			this.col17 = "value-" + i + "-17";
+			this.col18 = "value-" + i + "-18";
+			this.col19 = "value-" + i + "-19";
+			this.col20 = "value-" + i + "-20";
+			this.col21 = "value-" + i + "-21";
+			this.col22 = "value-" + i + "-22";
+			this.col23 = "value-" + i + "-23";
+			this.col24 = "value-" + i + "-24";
+			this.col25 = "value-" + i + "-25";
+			this.col26 = "value-" + i + "-26";
+			this.col27 = "value-" + i + "-27";
+			this.department = new Department("dept-" + i);
+			this.student = new Student(department);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package test;
+
+import com.project.frame.util.JasperReportUtil;
+import java.util.concurrent.TimeUnit;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.fill.JRTemplatePrintText;
+import net.sf.jasperreports.engine.fill.JRTemplateText;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 報表難字轉換效能比較，500 頁 x 60 個文字欄位，約一成欄位含造字
+ * <p>
+ * perCharRewrite 為原本的寫法，使用原本逐條 regex 的 cleanXss ({@link XssSanitizerTest#legacyCleanXss})，不受 XssSanitizer 改善影響。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class JasperEudcRewriteBenchmark {
+
+	private static final int PAGES = 500;
+
+	private static final int ELEMENTS_PER_PAGE = 60;
+
+	private JasperPrint jasperPrint;
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(JasperEudcRewriteBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	// 轉換會覆寫文字，每次重新產生報表
+	@Setup(Level.Invocation)
+	public void setup() {
+		jasperPrint = new JasperPrint();
+		for (int p = 0; p < PAGES; p++) {
+			JRBasePrintPage page = new JRBasePrintPage();
+			for (int e = 0; e < ELEMENTS_PER_PAGE; e++) {
+				JRTemplatePrintText text = new JRTemplatePrintText(new JRTemplateText(null, jasperPrint.getDefaultStyleProvider()), null);
+				int n = p * ELEMENTS_PER_PAGE + e;
+				if (n % 10 == 0) {
+					text.setText("申請人 王" + (char) 0xE3A1 + (char) 0xE3A2 + "明 地址 台北市" + (char) 0xF001 + "路 " + n + " 號");
+				} else {
+					text.setText("申請人 王小明 地址 台北市中山路 " + n + " 號");
+				}
+				page.addElement(text);
+			}
+			jasperPrint.addPage(page);
+		}
+	}
+
+	@Benchmark
+	public JasperPrint perCharRewrite() {
+		for (JRPrintPage page : jasperPrint.getPages()) {
+			for (JRPrintElement element : page.getElements()) {
+				JRTemplatePrintText jrtp = (JRTemplatePrintText) element;
+				JRTemplateText template = (JRTemplateText) jrtp.getTemplate();
+				StringBuilder sb = new StringBuilder();
+				for (char word : jrtp.getOriginalText().toCharArray()) {
+					if (word >= 0xE000 && word <= 0xF842) {
+						sb.append("<style ").append("fontName=\"EUDC\">");
+						sb.append(word);
+						sb.append("</style>");
+						template.setMarkup("styled");
+					} else {
+						sb.append(word);
+					}
+				}
+				jrtp.setText(XssSanitizerTest.legacyCleanXss(sb.toString()));
+			}
+		}
+		return jasperPrint;
+	}
+
+	@Benchmark
+	public JasperPrint sequentialRewrite() {
+		return JasperReportUtil.changeFontGenReport(jasperPrint, true);
+	}
+
+	@Benchmark
+	public JasperPrint parallelRewrite() {
+		return JasperReportUtil.changeFontGenReport(jasperPrint, false);
+	}
+}
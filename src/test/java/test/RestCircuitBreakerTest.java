@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.project.integration.rest.resilience.RestCircuitBreaker;
+import com.project.integration.rest.resilience.RestCircuitBreaker.State;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * RestCircuitBreaker 狀態轉換
+ */
+public class RestCircuitBreakerTest {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	public void testOpensWhenFailureRateReached() {
+		RestCircuitBreaker breaker = new RestCircuitBreaker(50, 10, 4, 60_000, 2, clock::get);
+		call(breaker, false);
+		call(breaker, false);
+		call(breaker, true);
+		// 呼叫數未達 minimumNumberOfCalls
+		assertEquals(State.CLOSED, breaker.getState());
+		call(breaker, true);
+		assertEquals(State.OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire());
+	}
+
+	@Test
+	public void testSlidingWindowDropsOldResults() {
+		RestCircuitBreaker breaker = new RestCircuitBreaker(50, 4, 4, 60_000, 2, clock::get);
+		call(breaker, true);
+		call(breaker, false);
+		call(breaker, false);
+		call(breaker, false);
+		assertEquals(25f, breaker.getFailureRate());
+		call(breaker, false);
+		assertEquals(0f, breaker.getFailureRate());
+		assertEquals(State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	public void testHalfOpenClosesAfterSuccessfulProbes() {
+		RestCircuitBreaker breaker = new RestCircuitBreaker(50, 2, 2, 50, 2, clock::get);
+		call(breaker, true);
+		call(breaker, true);
+		assertEquals(State.OPEN, breaker.getState());
+		clock.addAndGet(49);
+		assertEquals(State.OPEN, breaker.getState());
+		clock.addAndGet(1);
+		assertEquals(State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquire());
+		assertTrue(breaker.tryAcquire());
+		// 試探呼叫數已用完
+		assertFalse(breaker.tryAcquire());
+		breaker.onSuccess();
+		breaker.onSuccess();
+		assertEquals(State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	public void testHalfOpenReopensOnFailure() {
+		RestCircuitBreaker breaker = new RestCircuitBreaker(50, 2, 2, 50, 2, clock::get);
+		call(breaker, true);
+		call(breaker, true);
+		clock.addAndGet(49);
+		assertEquals(State.OPEN, breaker.getState());
+		clock.addAndGet(1);
+		assertTrue(breaker.tryAcquire());
+		breaker.onFailure();
+		assertEquals(State.OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire());
+	}
+
+	@Test
+	public void testReleaseReturnsHalfOpenPermit() {
+		RestCircuitBreaker breaker = new RestCircuitBreaker(50, 2, 2, 50, 1, clock::get);
+		call(breaker, true);
+		call(breaker, true);
+		clock.addAndGet(49);
+		assertEquals(State.OPEN, breaker.getState());
+		clock.addAndGet(1);
+		assertTrue(breaker.tryAcquire());
+		assertFalse(breaker.tryAcquire());
+		breaker.release();
+		assertTrue(breaker.tryAcquire());
+	}
+
+	private void call(RestCircuitBreaker breaker, boolean failure) {
+		assertTrue(breaker.tryAcquire());
+		if (failure) {
+			breaker.onFailure();
+		} else {
+			breaker.onSuccess();
+		}
+	}
+}
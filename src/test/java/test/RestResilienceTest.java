@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.project.integration.rest.config.RestResilienceProperties;
+import com.project.integration.rest.resilience.RestRejectedException;
+import com.project.integration.rest.resilience.RestResilience;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * RestResilience 重試、併發上限與 hedge
+ */
+public class RestResilienceTest {
+
+	private static final String URL = "http://rest.test/api";
+
+	private final RestResilienceProperties properties = new RestResilienceProperties();
+
+	private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "rest-resilience-test");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final CountDownLatch blocker = new CountDownLatch(1);
+
+	@AfterEach
+	public void tearDown() {
+		blocker.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testRetryIdempotentCall() {
+		properties.getDefaults().setRetryBackoffMillis(0L);
+		AtomicInteger calls = new AtomicInteger();
+		String result = resilience().execute(URL, HttpMethod.GET, () -> {
+			if (calls.incrementAndGet() < 3) {
+				throw new ResourceAccessException("connect timed out");
+			}
+			return "ok";
+		});
+		assertEquals("ok", result);
+		assertEquals(3, calls.get());
+	}
+
+	@Test
+	public void testRetryStopsAfterMaxRetries() {
+		properties.getDefaults().setRetryBackoffMillis(0L);
+		AtomicInteger calls = new AtomicInteger();
+		assertThrows(HttpServerErrorException.class, () -> resilience().execute(URL, HttpMethod.GET, () -> {
+			calls.incrementAndGet();
+			throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+		}));
+		assertEquals(3, calls.get());
+	}
+
+	@Test
+	public void testNoRetryForNonIdempotentCall() {
+		properties.getDefaults().setRetryBackoffMillis(0L);
+		AtomicInteger calls = new AtomicInteger();
+		assertThrows(ResourceAccessException.class, () -> resilience().execute(URL, HttpMethod.POST, () -> {
+			calls.incrementAndGet();
+			throw new ResourceAccessException("connect timed out");
+		}));
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	public void testBulkheadRejectsWhenFull() throws Exception {
+		properties.getDefaults().setMaxConcurrentCalls(1);
+		properties.getDefaults().setMaxWaitMillis(0L);
+		RestResilience resilience = resilience();
+		CountDownLatch started = new CountDownLatch(1);
+		Future<String> running = executor.submit(() -> resilience.execute(URL, HttpMethod.POST, () -> {
+			started.countDown();
+			await(blocker);
+			return "first";
+		}));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		RestRejectedException e = assertThrows(RestRejectedException.class, () -> resilience.execute(URL, HttpMethod.POST, () -> "second"));
+		assertEquals("http://rest.test", e.getRoute());
+
+		blocker.countDown();
+		assertEquals("first", running.get(5, TimeUnit.SECONDS));
+		// 歸還許可後可再呼叫
+		assertEquals("third", resilience.execute(URL, HttpMethod.POST, () -> "third"));
+	}
+
+	@Test
+	public void testHedgeReturnsFirstSuccess() {
+		properties.getDefaults().setHedgeDelayMillis(20L);
+		AtomicInteger calls = new AtomicInteger();
+		String result = resilience().execute(URL, HttpMethod.GET, () -> {
+			if (calls.incrementAndGet() == 1) {
+				// 先送出的呼叫卡住
+				await(blocker);
+				return "primary";
+			}
+			return "hedge";
+		});
+		assertEquals("hedge", result);
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	public void testHedgeFailsWhenAllAttemptsFail() {
+		properties.getDefaults().setHedgeDelayMillis(20L);
+		properties.getDefaults().setMaxRetries(0);
+		AtomicInteger calls = new AtomicInteger();
+		ResourceAccessException e = assertThrows(ResourceAccessException.class, () -> resilience().execute(URL, HttpMethod.GET, () -> {
+			int call = calls.incrementAndGet();
+			if (call == 1) {
+				sleep(100);
+			}
+			throw new ResourceAccessException("attempt " + call);
+		}));
+		assertEquals(2, calls.get());
+		// 全部結束後才拋出最後的錯誤
+		assertEquals("attempt 1", e.getMessage());
+	}
+
+	@Test
+	public void testHedgeInterruptFailsFast() {
+		properties.getDefaults().setHedgeDelayMillis(60_000L);
+		properties.getDefaults().setMaxRetries(0);
+		Thread caller = Thread.currentThread();
+		executor.execute(() -> {
+			sleep(50);
+			caller.interrupt();
+		});
+		long start = System.nanoTime();
+		try {
+			assertThrows(IllegalStateException.class, () -> resilience().execute(URL, HttpMethod.GET, () -> {
+				await(blocker);
+				return "primary";
+			}));
+			assertTrue(Thread.currentThread().isInterrupted());
+			assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	private RestResilience resilience() {
+		return new RestResilience(properties, new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), executor);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
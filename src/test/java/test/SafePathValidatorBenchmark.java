@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package test;
+
+import com.project.frame.util.CheckmarxUtil;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.owasp.esapi.ESAPI;
+import org.owasp.esapi.SafeFile;
+
+/**
+ * newFileSafely 於 32 執行緒同時建立檔案時的效能比較，8 個匯出目錄
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(32)
+@Fork(value = 1, jvmArgs = "-Dorg.owasp.esapi.resources=src/main/resources/esapi")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SafePathValidatorBenchmark {
+
+	private static final int DIRECTORIES = 8;
+
+	private File root;
+
+	private String[] directories;
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(SafePathValidatorBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	@Setup
+	public void setup() throws Exception {
+		root = Files.createTempDirectory("path-validator").toFile().getCanonicalFile();
+		new CheckmarxUtil().setBaseDir(root.getPath());
+		directories = new String[DIRECTORIES];
+		for (int i = 0; i < DIRECTORIES; i++) {
+			directories[i] = root.getPath() + File.separator + "export" + i;
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		FileUtils.deleteDirectory(root);
+	}
+
+	@Benchmark
+	public File globalLock() throws Exception {
+		return legacyNewFileSafely(nextDirectory(), "report.pdf");
+	}
+
+	@Benchmark
+	public File validatedCache() throws Exception {
+		return CheckmarxUtil.newFileSafely(nextDirectory(), "report.pdf");
+	}
+
+	private String nextDirectory() {
+		return directories[ThreadLocalRandom.current().nextInt(DIRECTORIES)];
+	}
+
+	/**
+	 * 原本的 CheckmarxUtil.newFileSafely，每次都鎖 ESAPI.class 並建立目錄
+	 */
+	private SafeFile legacyNewFileSafely(String path, String name) throws Exception {
+		String newPath = CheckmarxUtil.filterValidFilePath(path);
+		FileUtils.forceMkdir(new SafeFile(newPath));
+		name = FilenameUtils.getName(name);
+		synchronized (ESAPI.class) {
+			ESAPI.validator().getValidDirectoryPath("TBB", newPath, root, false);
+		}
+		String newName = CheckmarxUtil.filterValidString(CheckmarxUtil.filterValidFileName(name), 100, "[^a-z0-9A-Z\\_\\.\\-]");
+		SafeFile sf = new SafeFile(newPath, newName);
+		FileUtils.createParentDirectories(sf);
+		CheckmarxUtil.setPermissionsSafe(sf.getPath());
+		sf.setReadable(true);
+		sf.setWritable(true, true);
+		return sf;
+	}
+}
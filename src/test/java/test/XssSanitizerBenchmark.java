@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package test;
+
+import com.project.frame.util.XssSanitizer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * XSS 過濾效能比較，短字串 / 長字串 / 惡意字串
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class XssSanitizerBenchmark {
+
+	@Param({ "short", "long", "malicious" })
+	private String input;
+
+	private String value;
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(XssSanitizerBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	@Setup
+	public void setup() {
+		switch (input) {
+			case "short":
+				value = "王小明";
+				break;
+			case "long":
+				StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < 200; i++) {
+					sb.append("申請人 王小明 地址 台北市中山路 ").append(i).append(" 號；");
+				}
+				value = sb.toString();
+				break;
+			default:
+				value = "<img src=\"x\" onload=alert(1)><script>eval(document.cookie)</script> javascript:void(0)";
+				break;
+		}
+	}
+
+	@Benchmark
+	public String legacyCleanXss() {
+		return XssSanitizerTest.legacyCleanXss(value);
+	}
+
+	@Benchmark
+	public String sanitizer() {
+		return XssSanitizer.clean(value);
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 -Parker.
+ * All rights reserved.
+ */
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.project.frame.util.XssSanitizer;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+/**
+ * XssSanitizer 與原本逐條 regex 的 cleanXss 結果比對
+ */
+public class XssSanitizerTest {
+
+	private static final String[] FRAGMENTS = { "<script>", "</script>", "<SCRIPT type=x>", "src", "SRC", "\r", "\n", "=", "'", "\"", "eval(", "EvAl(",
+			"expression(", ")", "javascript:", "JAVA", "script:", "vbscript:", "onload", "OnLoad", "<", ">", "a", "王", " ", "ſcript", " " };
+
+	@Test
+	public void testCleanInputReturnsSameInstance() {
+		String value = "申請人 王小明 地址 台北市中山路 100 號 <b>bold</b> style=\"x\"";
+		assertSame(value, XssSanitizer.clean(value));
+		assertSame(null, XssSanitizer.clean(null));
+	}
+
+	@Test
+	public void testMaliciousInput() {
+		String[] values = { "<script>alert(1)</script>", "<img src=\"x\" onload=alert(1)>", "a javascript:alert(1) b", "EVAL(document.cookie)",
+				"width:expression(alert(1))", "javajavascript:script:", "<scr<script>ipt>alert(1)</script>" };
+		for (String value : values) {
+			assertEquals(legacyCleanXss(value), XssSanitizer.clean(value), value);
+		}
+	}
+
+	@Test
+	public void testRandomInputMatchesLegacy() {
+		Random random = new Random(20260101L);
+		for (int i = 0; i < 100_000; i++) {
+			StringBuilder sb = new StringBuilder();
+			int parts = random.nextInt(12);
+			for (int j = 0; j < parts; j++) {
+				sb.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+			}
+			String value = sb.toString();
+			assertEquals(legacyCleanXss(value), XssSanitizer.clean(value), value);
+		}
+	}
+
+	/**
+	 * 原本的 CheckmarxUtil.cleanXss
+	 */
+	static String legacyCleanXss(String value) {
+		if (value != null) {
+			// Avoid null characters
+			value = value.replaceAll("", "");
+
+			// Avoid anything between script tags
+			Pattern scriptPattern = Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE);
+
+			value = scriptPattern.matcher(value).replaceAll("");
+
+			// Avoid anything in a src='...' type of expression
+			scriptPattern = Pattern.compile("src[\r\n]=[\r\n]\\\'(.*?)\\\'", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+			value = scriptPattern.matcher(value).replaceAll("");
+
+			scriptPattern = Pattern.compile("src[\r\n]*=[\r\n]*\\\"(.*?)\\\"", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+			value = scriptPattern.matcher(value).replaceAll("");
+
+			// Remove any lonesome </script> tag
+			scriptPattern = Pattern.compile("</script>", Pattern.CASE_INSENSITIVE);
+
+			value = scriptPattern.matcher(value).replaceAll("");
+
+			// Remove any lonesome <script ...> tag
+			scriptPattern = Pattern.compile("<script(.*?)>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+			value = scriptPattern.matcher(value).replaceAll("");
+
+			// Avoid eval(...) expressions
+			scriptPattern = Pattern.compile("eval\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+			value = scriptPattern.matcher(value).replaceAll("");
+
+			// Avoid expression(...) expressions
+			scriptPattern = Pattern.compile("expression\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+			value = scriptPattern.matcher(value).replaceAll("");
+
+			// Avoid javascript:... expressions
+			scriptPattern = Pattern.compile("javascript:", Pattern.CASE_INSENSITIVE);
+
+			value = scriptPattern.matcher(value).replaceAll("");
+
+			// Avoid vbscript:... expressions
+			scriptPattern = Pattern.compile("vbscript:", Pattern.CASE_INSENSITIVE);
+
+			value = scriptPattern.matcher(value).replaceAll("");
+
+			// Avoid onload= expressions
+			scriptPattern = Pattern.compile("onload(.*?)=", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+
+			value = scriptPattern.matcher(value).replaceAll("");
+		}
+		return value;
+	}
+}